@@ -0,0 +1,90 @@
+package com.wonkglorg.utilitylib.benchmark;
+
+import com.wonkglorg.utilitylib.benchmark.stub.BenchMenu;
+import com.wonkglorg.utilitylib.benchmark.stub.StubItemStack;
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.inventory.Button;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing a click through {@link GuiManager#onClick(InventoryClickEvent)} to a button of one of N open menus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickDispatchBenchmark{
+	
+	@Param({"1", "100", "10000"})
+	public int menus;
+	
+	private GuiManager manager;
+	private InventoryClickEvent buttonClick;
+	private InventoryClickEvent emptyClick;
+	private InventoryClickEvent unrelatedClick;
+	
+	@Setup(Level.Trial)
+	public void setup(Blackhole blackhole) {
+		manager = Stubs.installGuiManager();
+		Player last = null;
+		BenchMenu lastMenu = null;
+		for(int i = 0; i < menus; i++){
+			Player player = Stubs.player(new UUID(0, i));
+			BenchMenu menu = new BenchMenu(Stubs.inventory(54), player);
+			menu.addButton(Button.create(new StubItemStack(Material.STONE, 1), blackhole::consume), 13);
+			GuiManager.addMenu(player.getUniqueId(), menu);
+			last = player;
+			lastMenu = menu;
+		}
+		manager.onTickEnd(Stubs.tickEnd());
+		buttonClick = Stubs.click(Stubs.view(lastMenu.getInventory(), last), 13, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+		emptyClick = Stubs.click(Stubs.view(lastMenu.getInventory(), last), 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+		Inventory notAMenu = Stubs.inventory(27);
+		unrelatedClick = Stubs.click(Stubs.view(notAMenu, last), 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		GuiManager.cleanup();
+	}
+	
+	@Benchmark
+	public void clickButton() {
+		manager.onClick(buttonClick);
+	}
+	
+	@Benchmark
+	public void clickEmptySlot() {
+		manager.onClick(emptyClick);
+	}
+	
+	@Benchmark
+	public void clickOtherInventory() {
+		manager.onClick(unrelatedClick);
+	}
+}
@@ -0,0 +1,82 @@
+package com.wonkglorg.utilitylib.benchmark;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.wonkglorg.utilitylib.benchmark.stub.BenchMenu;
+import com.wonkglorg.utilitylib.benchmark.stub.StubItemStack;
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.inventory.Icon;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling a full 54 slot inventory, alternating between two fillers so every fill actually changes every slot. Every fill is followed by the end of
+ * a tick which writes the changes to the inventory, like on a server
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FillBenchmark{
+	
+	private GuiManager manager;
+	private ServerTickEndEvent tickEnd;
+	private BenchMenu menu;
+	private ItemStack[] items;
+	private Icon[] icons;
+	private int next = 0;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		manager = Stubs.installGuiManager();
+		tickEnd = Stubs.tickEnd();
+		menu = new BenchMenu(Stubs.inventory(54), Stubs.player(UUID.randomUUID()));
+		items = new ItemStack[]{new StubItemStack(Material.GRAY_STAINED_GLASS_PANE, 1), new StubItemStack(Material.BLACK_STAINED_GLASS_PANE, 1)};
+		icons = new Icon[]{Icon.of(items[0]), Icon.of(items[1])};
+	}
+	
+	/**
+	 * Fills with an item, every slot gets its own copy
+	 */
+	@Benchmark
+	public void fillItem() {
+		next ^= 1;
+		menu.fill(items[next]);
+		manager.onTickEnd(tickEnd);
+	}
+	
+	/**
+	 * Fills with a shared icon
+	 */
+	@Benchmark
+	public void fillIcon() {
+		next ^= 1;
+		menu.fill(icons[next]);
+		manager.onTickEnd(tickEnd);
+	}
+	
+	/**
+	 * Fills with the icon already displayed, nothing has to be written
+	 */
+	@Benchmark
+	public void fillUnchanged() {
+		menu.fill(icons[0]);
+		manager.onTickEnd(tickEnd);
+	}
+}
@@ -0,0 +1,98 @@
+package com.wonkglorg.utilitylib.benchmark;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.wonkglorg.utilitylib.benchmark.stub.BenchMenu;
+import com.wonkglorg.utilitylib.benchmark.stub.StubItemStack;
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.inventory.Button;
+import com.wonkglorg.utilitylib.inventory.PaginationGui;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering pages and looking up entries of a pagination panel with a 28 slot page area, page renders are followed by the end of a tick which writes
+ * the changes to the inventory, like on a server
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark{
+	
+	@Param({"1000", "10000", "100000"})
+	public int entries;
+	
+	private GuiManager manager;
+	private ServerTickEndEvent tickEnd;
+	private PaginationGui pagination;
+	private ItemStack lastItem;
+	private Button lastButton;
+	private int page = 0;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		manager = Stubs.installGuiManager();
+		tickEnd = Stubs.tickEnd();
+		BenchMenu menu = new BenchMenu(Stubs.inventory(54), Stubs.player(UUID.randomUUID()));
+		pagination = new PaginationGui(menu);
+		pagination.addSlots(1, 1, 7, 4);
+		List<ItemStack> items = new ArrayList<>(entries);
+		Material[] materials = {Material.STONE, Material.DIRT, Material.OAK_LOG, Material.DIAMOND};
+		for(int i = 0; i < entries - 1; i++){
+			items.add(new StubItemStack(materials[i % materials.length], i % 64 + 1));
+		}
+		pagination.addPagedItems(items);
+		lastButton = Button.create(new StubItemStack(Material.EMERALD, 1), e -> {
+		});
+		pagination.addPagedButton(lastButton);
+		lastItem = items.get(items.size() - 1);
+		pagination.updatePage();
+		manager.onTickEnd(tickEnd);
+	}
+	
+	/**
+	 * Renders the next page, wrapping around to the first page after the last one
+	 */
+	@Benchmark
+	public void updatePage() {
+		page = page % pagination.getMaxPage() + 1;
+		pagination.setPage(page);
+		manager.onTickEnd(tickEnd);
+	}
+	
+	@Benchmark
+	public void updateSamePage() {
+		pagination.updatePage();
+		manager.onTickEnd(tickEnd);
+	}
+	
+	@Benchmark
+	public int getPositionOfItem() {
+		return pagination.getPosition(lastItem);
+	}
+	
+	@Benchmark
+	public int getPositionOfButton() {
+		return pagination.getPosition(lastButton);
+	}
+}
@@ -0,0 +1,56 @@
+package com.wonkglorg.utilitylib.benchmark;
+
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import com.wonkglorg.utilitylib.manager.ProfileManager;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up the profile of a player that already has one with N players known to the manager
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileManagerBenchmark{
+	
+	@Param({"10", "100", "1000"})
+	public int players;
+	
+	private ProfileManager<MenuProfile> manager;
+	private Player[] known;
+	private int next = 0;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		manager = new ProfileManager<>(new MenuProfile(null));
+		known = new Player[players];
+		for(int i = 0; i < players; i++){
+			known[i] = Stubs.player(new UUID(1, i));
+			manager.get(known[i]);
+		}
+	}
+	
+	@Benchmark
+	public MenuProfile get() {
+		next = (next + 1) % players;
+		return manager.get(known[next]);
+	}
+}
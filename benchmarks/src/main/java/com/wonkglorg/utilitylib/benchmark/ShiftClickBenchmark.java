@@ -0,0 +1,103 @@
+package com.wonkglorg.utilitylib.benchmark;
+
+import com.wonkglorg.utilitylib.benchmark.stub.BenchMenu;
+import com.wonkglorg.utilitylib.benchmark.stub.StubItemStack;
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shift clicking a stack from the player's inventory into the open slots of a menu, distributing it over partially filled and empty slots
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShiftClickBenchmark{
+	
+	/**
+	 * The amount of open slots in the menu
+	 */
+	@Param({"9", "27", "54"})
+	public int openSlots;
+	
+	private BenchMenu menu;
+	private Player player;
+	private InventoryView view;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		player = Stubs.player(UUID.randomUUID());
+		menu = new BenchMenu(Stubs.inventory(54), player);
+		menu.openSlots(0, openSlots - 1);
+		view = Stubs.view(menu.getInventory(), player);
+	}
+	
+	/**
+	 * Resets the menu to every other open slot holding a partial stack and puts a full stack into the player's first slot
+	 */
+	@Setup(Level.Iteration)
+	public void reset() {
+		menu.getInventory().clear();
+		for(int slot = 0; slot < openSlots; slot += 2){
+			menu.getInventory().setItem(slot, new StubItemStack(Material.COBBLESTONE, 60));
+		}
+		player.getInventory().setItem(0, new StubItemStack(Material.COBBLESTONE, 64));
+	}
+	
+	/**
+	 * Shift clicks the full stack into the menu and takes the moved items back out of it, so every invocation starts from the state of {@link #reset()}
+	 * without a per invocation fixture
+	 */
+	@Benchmark
+	public InventoryClickEvent shiftClick() {
+		InventoryClickEvent event = Stubs.click(view, menu.getInventory().getSize(), ClickType.SHIFT_LEFT, InventoryAction.MOVE_TO_OTHER_INVENTORY);
+		menu.onClick(event);
+		restore();
+		return event;
+	}
+	
+	private void restore() {
+		Inventory inventory = menu.getInventory();
+		for(int slot = 0; slot < openSlots; slot++){
+			ItemStack item = inventory.getItem(slot);
+			if(item == null){
+				continue;
+			}
+			if(slot % 2 != 0){
+				inventory.setItem(slot, null);
+			} else if(item.getAmount() != 60){
+				item.setAmount(60);
+			}
+		}
+		ItemStack stack = player.getInventory().getItem(0);
+		if(stack == null){
+			player.getInventory().setItem(0, new StubItemStack(Material.COBBLESTONE, 64));
+		} else {
+			stack.setAmount(64);
+		}
+	}
+}
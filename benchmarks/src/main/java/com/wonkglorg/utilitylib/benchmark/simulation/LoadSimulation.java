@@ -0,0 +1,289 @@
+package com.wonkglorg.utilitylib.benchmark.simulation;
+
+import com.wonkglorg.utilitylib.inventory.pagination.PageDataSource;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import com.wonkglorg.utilitylib.manager.LatencyHistogram;
+import com.wonkglorg.utilitylib.manager.MenuMetrics;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Simulates thousands of players using menus at the same time without a server, to see how the library holds up under load before it hits
+ * production. Every player acts every few ticks: opening a {@link SimulationMenu}, clicking entries, paging, clicking a button or closing the menu,
+ * all through the {@link GuiManager} like on a real server. Like on a real server everything runs on the main thread.
+ * <p>
+ * The report contains the throughput, the latency percentiles of every action and of whole ticks, and the heap retained by open menus and left
+ * behind after all menus were closed. Latencies come from {@link LatencyHistogram} so percentiles are accurate to within a factor of two.
+ * <pre>{@code
+ * java -cp benchmarks/target/benchmarks.jar com.wonkglorg.utilitylib.benchmark.simulation.LoadSimulation --players 5000 --ticks 2400
+ * }</pre>
+ * Options (all optional): {@code --players}, {@code --ticks} (measured ticks), {@code --warmup} (unmeasured ticks before), {@code --entries} (paged
+ * entries per menu), {@code --action-interval} (average ticks between two actions of a player) and {@code --seed}.
+ */
+public final class LoadSimulation{
+	/**
+	 * The ticks run after opening or closing all menus so scheduled work and queued renders can finish before the heap is measured
+	 */
+	private static final int SETTLE_TICKS = 40;
+	
+	private enum Action{
+		OPEN,
+		CLICK_ENTRY,
+		NEXT_PAGE,
+		PREVIOUS_PAGE,
+		CLICK_BUTTON,
+		CLICK_BORDER,
+		CLOSE
+	}
+	
+	private final int playerCount;
+	private final int ticks;
+	private final int warmupTicks;
+	private final int entryCount;
+	private final int actionInterval;
+	private final Random random;
+	
+	private final SimulatedServer server;
+	private final List<SimulatedPlayer> players = new ArrayList<>();
+	private final Map<Action, LatencyHistogram> latencies = new EnumMap<>(Action.class);
+	private PageDataSource<ItemStack> entries;
+	private boolean recording = false;
+	
+	private LoadSimulation(Map<String, Long> options) {
+		this.playerCount = options.get("players").intValue();
+		this.ticks = options.get("ticks").intValue();
+		this.warmupTicks = options.get("warmup").intValue();
+		this.entryCount = options.get("entries").intValue();
+		this.actionInterval = Math.max(1, options.get("action-interval").intValue());
+		this.random = new Random(options.get("seed"));
+		this.server = SimulatedServer.install();
+		for(Action action : Action.values()){
+			latencies.put(action, new LatencyHistogram());
+		}
+	}
+	
+	public static void main(String[] args) {
+		new LoadSimulation(parseOptions(args)).run();
+	}
+	
+	private static Map<String, Long> parseOptions(String[] args) {
+		Map<String, Long> options = new LinkedHashMap<>();
+		options.put("players", 2000L);
+		options.put("ticks", 1200L);
+		options.put("warmup", 400L);
+		options.put("entries", 10_000L);
+		options.put("action-interval", 10L);
+		options.put("seed", 42L);
+		for(int i = 0; i < args.length; i += 2){
+			String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+			if(!options.containsKey(name) || i + 1 >= args.length){
+				throw new IllegalArgumentException("Unknown option or missing value: " + args[i] + ", supported options are " + options.keySet());
+			}
+			options.put(name, Long.parseLong(args[i + 1]));
+		}
+		return options;
+	}
+	
+	private void run() {
+		entries = PageDataSource.of(SimulationMenu.createEntries(entryCount));
+		for(int i = 0; i < playerCount; i++){
+			players.add(new SimulatedPlayer(server.getManager(), new UUID(0, i)));
+		}
+		long baseline = usedHeap();
+		
+		//every player opens a menu at the same time to measure what an open menu costs
+		server.tick(() -> players.forEach(this::open));
+		settle();
+		long allOpen = usedHeap();
+		server.tick(() -> players.forEach(SimulatedPlayer::close));
+		settle();
+		
+		for(SimulatedPlayer player : players){
+			player.nextActionTick = server.getCurrentTick() + 1 + random.nextInt(actionInterval * 2);
+		}
+		for(int i = 0; i < warmupTicks; i++){
+			server.tick(this::act);
+		}
+		server.resetTickTimes();
+		GuiManager.getMetrics().reset();
+		
+		recording = true;
+		long start = System.nanoTime();
+		for(int i = 0; i < ticks; i++){
+			server.tick(this::act);
+		}
+		long elapsed = System.nanoTime() - start;
+		recording = false;
+		LatencyHistogram tickTimes = server.getTickTimes().copy();
+		long overBudgetTicks = server.getOverBudgetTicks();
+		
+		server.tick(() -> players.forEach(SimulatedPlayer::close));
+		settle();
+		long afterClose = usedHeap();
+		
+		report(elapsed, tickTimes, overBudgetTicks, baseline, allOpen, afterClose);
+	}
+	
+	/**
+	 * Runs the actions of every player whose turn it is
+	 */
+	private void act() {
+		int tick = server.getCurrentTick();
+		for(int i = 0; i < players.size(); i++){
+			SimulatedPlayer player = players.get(i);
+			if(player.nextActionTick > tick){
+				continue;
+			}
+			player.nextActionTick = tick + 1 + random.nextInt(actionInterval * 2);
+			Action action = pickAction(player);
+			long start = System.nanoTime();
+			perform(player, action);
+			if(recording){
+				latencies.get(action).record(System.nanoTime() - start);
+			}
+		}
+	}
+	
+	private Action pickAction(SimulatedPlayer player) {
+		if(!player.hasOpenInventory()){
+			return Action.OPEN;
+		}
+		int roll = random.nextInt(100);
+		if(roll < 40){
+			return Action.CLICK_ENTRY;
+		}
+		if(roll < 60){
+			return Action.NEXT_PAGE;
+		}
+		if(roll < 70){
+			return Action.PREVIOUS_PAGE;
+		}
+		if(roll < 80){
+			return Action.CLICK_BUTTON;
+		}
+		if(roll < 90){
+			return Action.CLICK_BORDER;
+		}
+		return Action.CLOSE;
+	}
+	
+	private void perform(SimulatedPlayer player, Action action) {
+		switch(action){
+			case OPEN:
+				open(player);
+				break;
+			case CLICK_ENTRY:
+				player.click(SimulationMenu.PAGED_SLOTS[random.nextInt(SimulationMenu.PAGED_SLOTS.length)]);
+				break;
+			case NEXT_PAGE:
+				player.click(SimulationMenu.NEXT_SLOT);
+				break;
+			case PREVIOUS_PAGE:
+				player.click(SimulationMenu.PREVIOUS_SLOT);
+				break;
+			case CLICK_BUTTON:
+				player.click(SimulationMenu.COUNTER_SLOT);
+				break;
+			case CLICK_BORDER:
+				player.click(0);
+				break;
+			case CLOSE:
+				player.close();
+				break;
+		}
+	}
+	
+	private void open(SimulatedPlayer player) {
+		new SimulationMenu(player.getPlayer(), entries).open();
+	}
+	
+	private void settle() {
+		for(int i = 0; i < SETTLE_TICKS; i++){
+			server.tick(() -> {
+			});
+		}
+	}
+	
+	private void report(long elapsed, LatencyHistogram tickTimes, long overBudgetTicks, long baseline, long allOpen, long afterClose) {
+		long actions = 0;
+		for(LatencyHistogram histogram : latencies.values()){
+			actions += histogram.getCount();
+		}
+		double seconds = elapsed / 1e9;
+		System.out.printf("Simulated %d players for %d ticks (%.1fs of server time) in %.2fs%n", playerCount, ticks, ticks / 20.0, seconds);
+		System.out.printf("Throughput: %.0f actions/s, %.0f ticks/s (%.1f actions per tick)%n", actions / seconds, ticks / seconds,
+				(double) actions / ticks);
+		System.out.println();
+		System.out.printf("%-14s %10s %10s %10s %10s %10s %10s%n", "action", "count", "mean", "p50", "p90", "p99", "max");
+		for(Map.Entry<Action, LatencyHistogram> entry : latencies.entrySet()){
+			printLatency(entry.getKey().name().toLowerCase(), entry.getValue());
+		}
+		printLatency("tick", tickTimes);
+		System.out.printf("Ticks over the %dms budget: %d%n", SimulatedServer.TICK_BUDGET_NANOS / 1_000_000, overBudgetTicks);
+		System.out.println();
+		System.out.printf("Heap baseline: %s%n", formatBytes(baseline));
+		System.out.printf("Heap with %d menus open: +%s (%s per menu)%n", playerCount, formatBytes(allOpen - baseline),
+				formatBytes((allOpen - baseline) / Math.max(1, playerCount)));
+		System.out.printf("Heap after closing all menus: %s%s%n", afterClose >= baseline ? "+" : "-", formatBytes(Math.abs(afterClose - baseline)));
+		System.out.printf("Menus still registered: %d, scheduled tasks pending: %d%n", GuiManager.getMenus(SimulationMenu.class).size(),
+				server.getPendingTasks());
+		System.out.println();
+		for(MenuMetrics.Snapshot snapshot : GuiManager.getMetrics().snapshot()){
+			System.out.printf("%s: %d opens, %d renders, %d slot writes, %d page flips%n", snapshot.type().getSimpleName(), snapshot.opens(),
+					snapshot.renders(), snapshot.slotWrites(), snapshot.pageFlips());
+		}
+	}
+	
+	private static void printLatency(String name, LatencyHistogram histogram) {
+		System.out.printf("%-14s %10d %10s %10s %10s %10s %10s%n", name, histogram.getCount(), formatNanos(histogram.getMeanNanos()),
+				formatNanos(histogram.getPercentileNanos(50)), formatNanos(histogram.getPercentileNanos(90)),
+				formatNanos(histogram.getPercentileNanos(99)), formatNanos(histogram.getMaxNanos()));
+	}
+	
+	private static String formatNanos(long nanos) {
+		if(nanos < 10_000){
+			return nanos + "ns";
+		}
+		if(nanos < 10_000_000){
+			return String.format("%.1fus", nanos / 1e3);
+		}
+		return String.format("%.1fms", nanos / 1e6);
+	}
+	
+	private static String formatBytes(long bytes) {
+		if(bytes < 10 * 1024){
+			return bytes + "B";
+		}
+		if(bytes < 10L * 1024 * 1024){
+			return String.format("%.1fKB", bytes / 1024.0);
+		}
+		return String.format("%.1fMB", bytes / (1024.0 * 1024));
+	}
+	
+	/**
+	 * Measures the used heap after collecting garbage, a few collections are run as a single one might not clear everything
+	 *
+	 * @return The used heap in bytes
+	 */
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for(int i = 0; i < 3; i++){
+			System.gc();
+			try{
+				Thread.sleep(50);
+			} catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
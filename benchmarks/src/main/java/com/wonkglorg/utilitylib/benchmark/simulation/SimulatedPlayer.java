@@ -0,0 +1,103 @@
+package com.wonkglorg.utilitylib.benchmark.simulation;
+
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A player that can open, click in and close inventories without a client. Opening and closing behave like on a server: opening an inventory closes
+ * the current one first and closing fires an {@link InventoryCloseEvent} at the {@link GuiManager}, clicks are passed to
+ * {@link GuiManager#onClick(org.bukkit.event.inventory.InventoryClickEvent)} like the server would.
+ */
+public final class SimulatedPlayer{
+	private final GuiManager manager;
+	private final Player player;
+	/**
+	 * The view shown while no inventory is open, like the crafting grid of a real player
+	 */
+	private InventoryView defaultView;
+	/**
+	 * The view of the open inventory or null if none is open
+	 */
+	private InventoryView openView;
+	/**
+	 * The tick this player acts next
+	 */
+	long nextActionTick;
+	
+	/**
+	 * Creates a simulated player
+	 *
+	 * @param manager The manager receiving the events of this player
+	 * @param uuid The uuid of the player
+	 */
+	public SimulatedPlayer(GuiManager manager, UUID uuid) {
+		this.manager = manager;
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("openInventory", args -> args[0] instanceof Inventory inventory ? open(inventory) : null);
+		methods.put("closeInventory", args -> {
+			close(args == null ? InventoryCloseEvent.Reason.PLUGIN : (InventoryCloseEvent.Reason) args[0]);
+			return null;
+		});
+		methods.put("getOpenInventory", args -> openView != null ? openView : defaultView);
+		this.player = Stubs.player(uuid, methods);
+		this.defaultView = Stubs.view(Stubs.inventory(5), player);
+	}
+	
+	private InventoryView open(Inventory inventory) {
+		close(InventoryCloseEvent.Reason.OPEN_NEW);
+		openView = Stubs.view(inventory, player);
+		return openView;
+	}
+	
+	private void close(InventoryCloseEvent.Reason reason) {
+		if(openView == null){
+			return;
+		}
+		InventoryView view = openView;
+		manager.onClose(new InventoryCloseEvent(view, reason));
+		openView = null;
+	}
+	
+	/**
+	 * Clicks a slot of the open inventory
+	 *
+	 * @param rawSlot The raw slot, slots past the top inventory are in the player's inventory
+	 */
+	public void click(int rawSlot) {
+		if(openView != null){
+			manager.onClick(Stubs.click(openView, rawSlot, ClickType.LEFT, InventoryAction.PICKUP_ALL));
+		}
+	}
+	
+	/**
+	 * Closes the open inventory like the player pressing escape
+	 */
+	public void close() {
+		close(InventoryCloseEvent.Reason.PLAYER);
+	}
+	
+	/**
+	 * @return The bukkit player
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+	
+	/**
+	 * @return Whether an inventory is open
+	 */
+	public boolean hasOpenInventory() {
+		return openView != null;
+	}
+}
@@ -0,0 +1,271 @@
+package com.wonkglorg.utilitylib.benchmark.simulation;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
+import com.wonkglorg.utilitylib.benchmark.stub.Stubs;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import com.wonkglorg.utilitylib.manager.LatencyHistogram;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the server that drives the library without minecraft. It replaces the bukkit server singleton with a stub creating array backed
+ * inventories and a scheduler whose tasks only run when {@link #tick(Runnable)} is called, and passes the tick events straight to a
+ * {@link GuiManager} set as the manager instance so menus render at the end of each tick like they would on a real server.
+ * <p>
+ * The thread that installs the server acts as the main thread. Only one simulated server can exist per JVM.
+ */
+public final class SimulatedServer{
+	/**
+	 * The time a tick may take before the server falls behind
+	 */
+	public static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	
+	private static SimulatedServer installed;
+	
+	private final Thread mainThread;
+	private final Logger logger = Logger.getLogger("SimulatedServer");
+	private final GuiManager manager;
+	/**
+	 * Tasks submitted since the last tick, may be added to from any thread
+	 */
+	private final Queue<ScheduledTask> submitted = new ConcurrentLinkedQueue<>();
+	/**
+	 * Tasks waiting for their tick, ordered by due tick and submission order
+	 */
+	private final PriorityQueue<ScheduledTask> pending = new PriorityQueue<>();
+	private final Map<Integer, ScheduledTask> tasks = new ConcurrentHashMap<>();
+	private final AtomicInteger nextTaskId = new AtomicInteger(1);
+	/**
+	 * The duration of every tick including the tick events, scheduled tasks and the work of the tick
+	 */
+	private final LatencyHistogram tickTimes = new LatencyHistogram();
+	private volatile int currentTick = 0;
+	private long tasksRun = 0;
+	private long overBudgetTicks = 0;
+	
+	private SimulatedServer() {
+		this.mainThread = Thread.currentThread();
+		this.manager = Stubs.installGuiManager();
+		BukkitScheduler scheduler = createScheduler();
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getScheduler", args -> scheduler);
+		methods.put("getLogger", args -> logger);
+		methods.put("getName", args -> "SimulatedServer");
+		methods.put("getVersion", args -> "simulated");
+		methods.put("isPrimaryThread", args -> Thread.currentThread() == mainThread);
+		methods.put("getCurrentTick", args -> currentTick);
+		methods.put("createInventory", args -> Stubs.inventory((int) args[1]));
+		setStatic(Bukkit.class, "server", Stubs.proxy(Server.class, "SimulatedServer", methods));
+	}
+	
+	/**
+	 * Installs the simulated server, does nothing if it is already installed
+	 *
+	 * @return The simulated server
+	 */
+	public static synchronized SimulatedServer install() {
+		if(installed == null){
+			installed = new SimulatedServer();
+		}
+		return installed;
+	}
+	
+	/**
+	 * Runs a single tick: the tick start event, every task due this tick, the given work and the tick end event which flushes pending renders
+	 *
+	 * @param work The work of this tick, for example the actions of the simulated players
+	 */
+	public void tick(Runnable work) {
+		long start = System.nanoTime();
+		currentTick++;
+		manager.onTickStart(new ServerTickStartEvent(currentTick));
+		runDueTasks();
+		work.run();
+		long elapsed = System.nanoTime() - start;
+		manager.onTickEnd(new ServerTickEndEvent(currentTick, elapsed / 1_000_000.0, TICK_BUDGET_NANOS - elapsed));
+		elapsed = System.nanoTime() - start;
+		tickTimes.record(elapsed);
+		if(elapsed > TICK_BUDGET_NANOS){
+			overBudgetTicks++;
+		}
+	}
+	
+	private void runDueTasks() {
+		for(ScheduledTask task = submitted.poll(); task != null; task = submitted.poll()){
+			pending.add(task);
+		}
+		while(!pending.isEmpty() && pending.peek().dueTick <= currentTick){
+			ScheduledTask task = pending.poll();
+			if(task.cancelled){
+				continue;
+			}
+			tasksRun++;
+			task.run();
+			if(task.period > 0 && !task.cancelled){
+				task.dueTick = currentTick + task.period;
+				pending.add(task);
+			} else {
+				tasks.remove(task.id);
+			}
+		}
+	}
+	
+	/**
+	 * @return The manager receiving the events of this server
+	 */
+	public GuiManager getManager() {
+		return manager;
+	}
+	
+	/**
+	 * @return The number of the last tick
+	 */
+	public int getCurrentTick() {
+		return currentTick;
+	}
+	
+	/**
+	 * @return The amount of scheduled tasks that ran
+	 */
+	public long getTasksRun() {
+		return tasksRun;
+	}
+	
+	/**
+	 * @return The amount of scheduled tasks waiting to run
+	 */
+	public int getPendingTasks() {
+		return tasks.size();
+	}
+	
+	/**
+	 * @return The amount of ticks that took longer than {@link #TICK_BUDGET_NANOS}
+	 */
+	public long getOverBudgetTicks() {
+		return overBudgetTicks;
+	}
+	
+	/**
+	 * @return The durations of all ticks so far
+	 */
+	public LatencyHistogram getTickTimes() {
+		return tickTimes;
+	}
+	
+	/**
+	 * Forgets the tick durations, used to drop the ticks of the warmup
+	 */
+	public void resetTickTimes() {
+		tickTimes.reset();
+		overBudgetTicks = 0;
+	}
+	
+	private BukkitScheduler createScheduler() {
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("runTask", args -> schedule((Plugin) args[0], args[1], 0, 0));
+		methods.put("runTaskLater", args -> schedule((Plugin) args[0], args[1], (long) args[2], 0));
+		methods.put("runTaskTimer", args -> schedule((Plugin) args[0], args[1], (long) args[2], (long) args[3]));
+		methods.put("scheduleSyncDelayedTask",
+				args -> schedule((Plugin) args[0], args[1], args.length > 2 ? (long) args[2] : 0, 0).getTaskId());
+		methods.put("scheduleSyncRepeatingTask", args -> schedule((Plugin) args[0], args[1], (long) args[2], (long) args[3]).getTaskId());
+		methods.put("cancelTask", args -> {
+			ScheduledTask task = tasks.remove((int) args[0]);
+			if(task != null){
+				task.cancelled = true;
+			}
+			return null;
+		});
+		methods.put("isQueued", args -> tasks.containsKey((int) args[0]));
+		methods.put("getMainThreadExecutor", args -> (Executor) command -> schedule((Plugin) args[0], command, 0, 0));
+		return Stubs.proxy(BukkitScheduler.class, "SimulatedScheduler", methods);
+	}
+	
+	/**
+	 * Schedules a task to run on the main thread
+	 *
+	 * @param plugin The plugin owning the task (may be null in the simulation)
+	 * @param callback The task, either a {@link Runnable} or a {@link Consumer} of the task itself
+	 * @param delay The delay in ticks, tasks without delay run at the start of the next tick
+	 * @param period The period in ticks for repeating tasks (0 or less to run once)
+	 * @return The scheduled task
+	 */
+	private BukkitTask schedule(Plugin plugin, Object callback, long delay, long period) {
+		ScheduledTask task = new ScheduledTask(nextTaskId.getAndIncrement(), callback, currentTick + Math.max(1, delay), period);
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getTaskId", args -> task.id);
+		methods.put("getOwner", args -> plugin);
+		methods.put("isSync", args -> true);
+		methods.put("isCancelled", args -> task.cancelled);
+		methods.put("cancel", args -> {
+			task.cancelled = true;
+			tasks.remove(task.id);
+			return null;
+		});
+		task.handle = Stubs.proxy(BukkitTask.class, "Task[" + task.id + "]", methods);
+		tasks.put(task.id, task);
+		submitted.add(task);
+		return task.handle;
+	}
+	
+	private static void setStatic(Class<?> type, String name, Object value) {
+		try{
+			Field field = type.getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(null, value);
+		} catch(ReflectiveOperationException e){
+			throw new IllegalStateException("Unable to set " + type.getSimpleName() + "." + name, e);
+		}
+	}
+	
+	/**
+	 * A task waiting for its tick
+	 */
+	private static final class ScheduledTask implements Comparable<ScheduledTask>{
+		private final int id;
+		private final Object callback;
+		private final long period;
+		private long dueTick;
+		private BukkitTask handle;
+		private volatile boolean cancelled = false;
+		
+		private ScheduledTask(int id, Object callback, long dueTick, long period) {
+			this.id = id;
+			this.callback = callback;
+			this.dueTick = dueTick;
+			this.period = period;
+		}
+		
+		@SuppressWarnings("unchecked")
+		private void run() {
+			if(callback instanceof Runnable runnable){
+				runnable.run();
+			} else {
+				((Consumer<BukkitTask>) callback).accept(handle);
+			}
+		}
+		
+		@Override
+		public int compareTo(ScheduledTask other) {
+			int byTick = Long.compare(dueTick, other.dueTick);
+			return byTick != 0 ? byTick : Integer.compare(id, other.id);
+		}
+	}
+}
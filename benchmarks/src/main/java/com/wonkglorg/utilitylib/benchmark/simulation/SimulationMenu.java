@@ -0,0 +1,121 @@
+package com.wonkglorg.utilitylib.benchmark.simulation;
+
+import com.wonkglorg.utilitylib.benchmark.stub.StubItemStack;
+import com.wonkglorg.utilitylib.inventory.Button;
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import com.wonkglorg.utilitylib.inventory.Icon;
+import com.wonkglorg.utilitylib.inventory.PaginationGui;
+import com.wonkglorg.utilitylib.inventory.pagination.PageDataSource;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * A typical paged menu: a border, 28 paged entries read from a data source shared by all menus, page buttons and a counter button that changes an
+ * icon every click
+ */
+public final class SimulationMenu extends GuiInventory<MenuProfile>{
+	public static final int SIZE = 54;
+	public static final int PREVIOUS_SLOT = 45;
+	public static final int NEXT_SLOT = 53;
+	public static final int COUNTER_SLOT = 49;
+	/**
+	 * The slot displaying the amount of counter clicks
+	 */
+	public static final int COUNT_SLOT = 4;
+	/**
+	 * The raw slots of the paged entries
+	 */
+	public static final int[] PAGED_SLOTS;
+	
+	private static final Component TITLE = Component.text("Simulation");
+	private static final Icon BORDER = Icon.of(new StubItemStack(Material.COBBLESTONE, 1));
+	private static final ItemStack FILLER = new StubItemStack(Material.DIRT, 1);
+	private static final ItemStack PREVIOUS = new StubItemStack(Material.OAK_LOG, 1);
+	private static final ItemStack NEXT = new StubItemStack(Material.OAK_LOG, 2);
+	private static final ItemStack COUNTER = new StubItemStack(Material.EMERALD, 1);
+	private static final ItemStack[] COUNTS = new ItemStack[64];
+	
+	static{
+		PAGED_SLOTS = new int[28];
+		int i = 0;
+		for(int y = 1; y <= 4; y++){
+			for(int x = 1; x <= 7; x++){
+				PAGED_SLOTS[i++] = y * 9 + x;
+			}
+		}
+		for(int amount = 0; amount < COUNTS.length; amount++){
+			COUNTS[amount] = new StubItemStack(Material.DIAMOND, amount + 1);
+		}
+	}
+	
+	private final PageDataSource<ItemStack> entries;
+	private PaginationGui pagination;
+	private int entryClicks = 0;
+	private int counterClicks = 0;
+	
+	/**
+	 * Creates a menu
+	 *
+	 * @param player The player the menu is for
+	 * @param entries The entries to page through, shared by all menus
+	 */
+	public SimulationMenu(Player player, PageDataSource<ItemStack> entries) {
+		super(SIZE, TITLE, null, player);
+		this.entries = entries;
+	}
+	
+	@Override
+	public void addComponents() {
+		fill(BORDER);
+		pagination = new PaginationGui(this, FILLER);
+		pagination.addSlots(1, 1, 7, 4);
+		pagination.setAdapter(entries, (entry, index) -> entry, (event, entry, index) -> entryClicks++);
+		pagination.setPageSwapButtons(PREVIOUS, PREVIOUS_SLOT, NEXT, NEXT_SLOT);
+		addButton(Button.create(COUNTER, e -> {
+			counterClicks++;
+			addItem(COUNTS[counterClicks % COUNTS.length], COUNT_SLOT);
+		}), COUNTER_SLOT);
+		pagination.updatePage();
+	}
+	
+	/**
+	 * @return The pagination panel of this menu, null until the menu was built
+	 */
+	public PaginationGui getPagination() {
+		return pagination;
+	}
+	
+	/**
+	 * @return The amount of clicks on paged entries
+	 */
+	public int getEntryClicks() {
+		return entryClicks;
+	}
+	
+	/**
+	 * @return The amount of clicks on the counter button
+	 */
+	public int getCounterClicks() {
+		return counterClicks;
+	}
+	
+	/**
+	 * Creates the entries of a data source
+	 *
+	 * @param amount The amount of entries
+	 * @return The entries, every entry is its own item like the entries of a real menu
+	 */
+	public static List<ItemStack> createEntries(int amount) {
+		Material[] materials = {Material.STONE, Material.DIRT, Material.OAK_LOG, Material.DIAMOND};
+		ItemStack[] items = new ItemStack[amount];
+		for(int i = 0; i < amount; i++){
+			items[i] = new StubItemStack(materials[i % materials.length], i % 64 + 1);
+		}
+		return List.of(items);
+	}
+}
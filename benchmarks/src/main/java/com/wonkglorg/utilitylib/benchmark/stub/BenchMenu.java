@@ -0,0 +1,20 @@
+package com.wonkglorg.utilitylib.benchmark.stub;
+
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+/**
+ * An empty menu on a stub inventory, benchmarks add their components directly
+ */
+public final class BenchMenu extends GuiInventory<MenuProfile>{
+	
+	public BenchMenu(Inventory inventory, Player player) {
+		super(inventory, null, player);
+	}
+	
+	@Override
+	public void addComponents() {
+	}
+}
@@ -0,0 +1,74 @@
+package com.wonkglorg.utilitylib.benchmark.stub;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * An item that only stores its type and amount, real items are backed by the server's item implementation which is not available outside of a
+ * server. Only the methods used by the library are supported.
+ */
+public final class StubItemStack extends ItemStack{
+	private final Material type;
+	private int amount;
+	
+	public StubItemStack(Material type, int amount) {
+		this.type = type;
+		this.amount = amount;
+	}
+	
+	@Override
+	public Material getType() {
+		return type;
+	}
+	
+	@Override
+	public int getAmount() {
+		return amount;
+	}
+	
+	@Override
+	public void setAmount(int amount) {
+		this.amount = amount;
+	}
+	
+	@Override
+	public int getMaxStackSize() {
+		return 64;
+	}
+	
+	@Override
+	public ItemMeta getItemMeta() {
+		return null;
+	}
+	
+	@Override
+	public boolean hasItemMeta() {
+		return false;
+	}
+	
+	@Override
+	public boolean isSimilar(ItemStack stack) {
+		return stack != null && stack.getType() == type;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return amount <= 0;
+	}
+	
+	@Override
+	public StubItemStack clone() {
+		return new StubItemStack(type, amount);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof StubItemStack item && item.type == type && item.amount == amount;
+	}
+	
+	@Override
+	public int hashCode() {
+		return type.hashCode() * 31 + amount;
+	}
+}
@@ -0,0 +1,262 @@
+package com.wonkglorg.utilitylib.benchmark.stub;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Lightweight implementations of the bukkit interfaces the library touches, built as dynamic proxies so they keep working when the api adds
+ * methods. Every method without an explicit implementation returns the default value of its return type (0, false, null or an empty collection).
+ */
+public final class Stubs{
+	
+	private Stubs() {
+	}
+	
+	/**
+	 * Creates an inventory backed by an array
+	 *
+	 * @param size The size of the inventory
+	 * @return The inventory
+	 */
+	public static Inventory inventory(int size) {
+		return inventory(Inventory.class, size);
+	}
+	
+	private static <T extends Inventory> T inventory(Class<T> type, int size) {
+		ItemStack[] contents = new ItemStack[size];
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getSize", args -> size);
+		methods.put("getItem", args -> contents[(int) args[0]]);
+		methods.put("setItem", args -> contents[(int) args[0]] = (ItemStack) args[1]);
+		methods.put("getContents", args -> contents.clone());
+		methods.put("getStorageContents", args -> contents.clone());
+		methods.put("setContents", args -> {
+			ItemStack[] items = (ItemStack[]) args[0];
+			Arrays.fill(contents, null);
+			System.arraycopy(items, 0, contents, 0, Math.min(items.length, size));
+			return null;
+		});
+		methods.put("addItem", args -> {
+			HashMap<Integer, ItemStack> leftover = new HashMap<>();
+			ItemStack[] items = (ItemStack[]) args[0];
+			for(int i = 0; i < items.length; i++){
+				int free = -1;
+				for(int slot = 0; slot < size && free < 0; slot++){
+					if(contents[slot] == null){
+						free = slot;
+					}
+				}
+				if(free < 0){
+					leftover.put(i, items[i]);
+				} else {
+					contents[free] = items[i];
+				}
+			}
+			return leftover;
+		});
+		methods.put("clear", args -> {
+			if(args == null){
+				Arrays.fill(contents, null);
+			} else {
+				contents[(int) args[0]] = null;
+			}
+			return null;
+		});
+		return proxy(type, type.getSimpleName() + "[" + size + "]", methods);
+	}
+	
+	/**
+	 * Creates a player with an empty 36 slot inventory
+	 *
+	 * @param uuid The uuid of the player
+	 * @return The player
+	 */
+	public static Player player(UUID uuid) {
+		return player(uuid, Map.of());
+	}
+	
+	/**
+	 * Creates a player with an empty 36 slot inventory and additional behaviour
+	 *
+	 * @param uuid The uuid of the player
+	 * @param extraMethods The implementation of additional methods by method name, these replace the built-in ones
+	 * @return The player
+	 */
+	public static Player player(UUID uuid, Map<String, Function<Object[], Object>> extraMethods) {
+		PlayerInventory inventory = inventory(PlayerInventory.class, 36);
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getUniqueId", args -> uuid);
+		methods.put("getName", args -> uuid.toString().substring(0, 8));
+		methods.put("getInventory", args -> inventory);
+		methods.put("isValid", args -> true);
+		methods.put("isOnline", args -> true);
+		methods.putAll(extraMethods);
+		return proxy(Player.class, "Player[" + uuid + "]", methods);
+	}
+	
+	/**
+	 * Creates the view of a player looking at an inventory, raw slots below the size of the top inventory belong to it and the rest to the player's
+	 * inventory
+	 *
+	 * @param top The inventory the player is looking at
+	 * @param player The player
+	 * @return The view
+	 */
+	public static InventoryView view(Inventory top, Player player) {
+		Inventory bottom = player.getInventory();
+		int topSize = top.getSize();
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getTopInventory", args -> top);
+		methods.put("getBottomInventory", args -> bottom);
+		methods.put("getPlayer", args -> player);
+		methods.put("getType", args -> InventoryType.CHEST);
+		methods.put("countSlots", args -> topSize + bottom.getSize());
+		methods.put("getInventory", args -> (int) args[0] < 0 ? null : (int) args[0] < topSize ? top : bottom);
+		methods.put("convertSlot", args -> (int) args[0] < topSize ? (int) args[0] : (int) args[0] - topSize);
+		methods.put("getSlotType", args -> InventoryType.SlotType.CONTAINER);
+		methods.put("getItem", args -> {
+			int rawSlot = (int) args[0];
+			return rawSlot < topSize ? top.getItem(rawSlot) : bottom.getItem(rawSlot - topSize);
+		});
+		methods.put("setItem", args -> {
+			int rawSlot = (int) args[0];
+			if(rawSlot < topSize){
+				top.setItem(rawSlot, (ItemStack) args[1]);
+			} else {
+				bottom.setItem(rawSlot - topSize, (ItemStack) args[1]);
+			}
+			return null;
+		});
+		return proxy(InventoryView.class, "View[" + top + "]", methods);
+	}
+	
+	/**
+	 * Creates a click event
+	 *
+	 * @param view The view the click happened in
+	 * @param rawSlot The clicked raw slot
+	 * @param click The type of the click
+	 * @param action The resulting action
+	 * @return The event
+	 */
+	public static InventoryClickEvent click(InventoryView view, int rawSlot, ClickType click, InventoryAction action) {
+		return new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, rawSlot, click, action);
+	}
+	
+	/**
+	 * Installs a gui manager that is not registered as a listener, its event handlers only work on the static menu registry so they can be called
+	 * directly. Menus collect their changes and only render when {@link GuiManager#onTickEnd(ServerTickEndEvent)} is called, like they do at the end of
+	 * every tick on a real server. Returns the installed manager if one was already installed.
+	 *
+	 * @return The installed gui manager
+	 */
+	public static GuiManager installGuiManager() {
+		return GuiManager.createDetachedInstance();
+	}
+	
+	/**
+	 * Creates the event ending a tick, passing it to {@link GuiManager#onTickEnd(ServerTickEndEvent)} flushes all pending renders
+	 *
+	 * @return The event
+	 */
+	public static ServerTickEndEvent tickEnd() {
+		return new ServerTickEndEvent(1, 0, TimeUnit.MILLISECONDS.toNanos(50));
+	}
+	
+	/**
+	 * Creates a proxy answering the given methods by name, all other methods return the default value of their return type. Equality and hash code
+	 * are always based on identity.
+	 *
+	 * @param type The interface to implement
+	 * @param name The name returned by toString
+	 * @param methods The implementation of every supported method by method name
+	 * @param <T> The type of the interface
+	 * @return The proxy
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T proxy(Class<T> type, String name, Map<String, Function<Object[], Object>> methods) {
+		InvocationHandler handler = new InvocationHandler(){
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				switch(method.getName()){
+					case "equals":
+						if(args != null && args.length == 1 && method.getParameterTypes()[0] == Object.class){
+							return proxy == args[0];
+						}
+						break;
+					case "hashCode":
+						if(args == null){
+							return System.identityHashCode(proxy);
+						}
+						break;
+					case "toString":
+						if(args == null){
+							return name;
+						}
+						break;
+					default:
+						break;
+				}
+				Function<Object[], Object> implementation = methods.get(method.getName());
+				if(implementation != null){
+					return implementation.apply(args);
+				}
+				return defaultValue(method.getReturnType());
+			}
+		};
+		return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, handler);
+	}
+	
+	private static Object defaultValue(Class<?> type) {
+		if(type == boolean.class){
+			return false;
+		}
+		if(type == int.class || type == short.class || type == byte.class){
+			return 0;
+		}
+		if(type == long.class){
+			return 0L;
+		}
+		if(type == double.class){
+			return 0.0;
+		}
+		if(type == float.class){
+			return 0f;
+		}
+		if(type == char.class){
+			return (char) 0;
+		}
+		if(type == List.class || type == Collection.class){
+			return List.of();
+		}
+		if(type == Set.class){
+			return Set.of();
+		}
+		if(type == Map.class){
+			return Map.of();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,229 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Bukkit;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * A button whose click runs slow work (database writes, remote requests) off the main thread. A click happens in three steps:
+ * <ol>
+ *     <li>{@code prepare} runs on the main thread with the click event and returns the work to run, read everything the work needs from the event or
+ *     the menu here as neither may be touched from another thread</li>
+ *     <li>the work runs on the {@link #getExecutor() executor}</li>
+ *     <li>{@code onComplete} runs on the main thread with the result and applies it to the menu</li>
+ * </ol>
+ * While the work runs the button ignores further clicks so it can't be submitted twice, and displays its {@link #getLoadingIcon() loading icon} if
+ * one is set. The result is dropped if the menu was destroyed in the meantime.
+ *
+ * @param <R> The type of the result of the work
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class AsyncButton<R> extends Button{
+	
+	private static Executor defaultExecutor;
+	
+	/**
+	 * Creates the work to run from a click, runs on the main thread
+	 */
+	private final Function<InventoryClickEvent, Callable<R>> prepare;
+	/**
+	 * Applies the result of the work to the menu, runs on the main thread
+	 */
+	private final BiConsumer<GuiInventory<?>, R> onComplete;
+	/**
+	 * Runs on the main thread if the work failed (by default the error is logged)
+	 */
+	@Setter
+	private BiConsumer<GuiInventory<?>, Throwable> onError;
+	/**
+	 * The executor the work runs on (null to use the {@link #getDefaultExecutor() default executor})
+	 */
+	@Setter
+	private Executor executor;
+	/**
+	 * The icon displayed while the work runs (null to keep the normal icon)
+	 */
+	@Getter
+	@Setter
+	private Icon loadingIcon;
+	/**
+	 * Whether the work of a click is currently running
+	 */
+	@Getter
+	private boolean inFlight = false;
+	
+	private AsyncButton(ItemStack item, Function<InventoryClickEvent, Callable<R>> prepare, BiConsumer<GuiInventory<?>, R> onComplete) {
+		super(item);
+		this.prepare = prepare;
+		this.onComplete = onComplete;
+	}
+	
+	private AsyncButton(Icon icon, Function<InventoryClickEvent, Callable<R>> prepare, BiConsumer<GuiInventory<?>, R> onComplete) {
+		super(icon);
+		this.prepare = prepare;
+		this.onComplete = onComplete;
+	}
+	
+	/**
+	 * Creates an async button
+	 *
+	 * @param item The ItemStack to be used as this button's icon
+	 * @param prepare Runs on the main thread when the button is clicked and returns the work to run off the main thread (null to do nothing)
+	 * @param onComplete Runs on the main thread with the result of the work if the menu still exists
+	 * @param <R> The type of the result
+	 * @return The button
+	 */
+	public static <R> AsyncButton<R> create(ItemStack item, Function<InventoryClickEvent, Callable<R>> prepare,
+			BiConsumer<GuiInventory<?>, R> onComplete) {
+		return new AsyncButton<>(item, prepare, onComplete);
+	}
+	
+	/**
+	 * Creates an async button from a shared icon, the icon is not copied and {@link #getItem()} returns a copy of it
+	 *
+	 * @param icon The icon of this button
+	 * @param prepare Runs on the main thread when the button is clicked and returns the work to run off the main thread (null to do nothing)
+	 * @param onComplete Runs on the main thread with the result of the work if the menu still exists
+	 * @param <R> The type of the result
+	 * @return The button
+	 */
+	public static <R> AsyncButton<R> create(Icon icon, Function<InventoryClickEvent, Callable<R>> prepare, BiConsumer<GuiInventory<?>, R> onComplete) {
+		return new AsyncButton<>(icon, prepare, onComplete);
+	}
+	
+	/**
+	 * Gets the executor async buttons run their work on if they don't have their own, a virtual thread per task if the runtime supports them,
+	 * otherwise a cached pool of daemon threads
+	 *
+	 * @return The default executor
+	 */
+	public static synchronized Executor getDefaultExecutor() {
+		if(defaultExecutor == null){
+			defaultExecutor = createDefaultExecutor();
+		}
+		return defaultExecutor;
+	}
+	
+	/**
+	 * Sets the executor async buttons run their work on if they don't have their own
+	 *
+	 * @param executor The executor (null to go back to the built-in one)
+	 */
+	public static synchronized void setDefaultExecutor(Executor executor) {
+		defaultExecutor = executor;
+	}
+	
+	private static Executor createDefaultExecutor() {
+		try{
+			//looked up reflectively as the library is compiled for runtimes without virtual threads
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch(ReflectiveOperationException e){
+			AtomicInteger count = new AtomicInteger();
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "UtilityLib-GUI-Async-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
+	/**
+	 * @return The executor the work of this button runs on
+	 */
+	public Executor getExecutor() {
+		return executor != null ? executor : getDefaultExecutor();
+	}
+	
+	@Override
+	public ItemStack getItem() {
+		if(inFlight && loadingIcon != null){
+			return loadingIcon.toItemStack();
+		}
+		return super.getItem();
+	}
+	
+	@Override
+	ItemStack sharedItem() {
+		if(inFlight && loadingIcon != null){
+			return loadingIcon.shared();
+		}
+		return super.sharedItem();
+	}
+	
+	@Override
+	public void onClick(InventoryClickEvent e) {
+		e.setCancelled(true);
+		if(inFlight){
+			return;
+		}
+		GuiInventory<?> gui = GuiManager.<GuiInventory<?>>getMenu(e.getView().getTopInventory()).orElse(null);
+		if(gui == null || gui.isDestroyed()){
+			return;
+		}
+		Callable<R> work = prepare.apply(e);
+		if(work == null){
+			return;
+		}
+		setInFlight(gui, true);
+		CompletableFuture<R> future;
+		try{
+			future = CompletableFuture.supplyAsync(() -> {
+				try{
+					return work.call();
+				} catch(Exception ex){
+					throw new CompletionException(ex);
+				}
+			}, getExecutor());
+		} catch(RuntimeException ex){
+			//the executor rejected the work
+			complete(gui, null, ex);
+			return;
+		}
+		future.whenComplete((result, error) -> {
+			if(gui.getPlugin().isEnabled()){
+				Bukkit.getScheduler().runTask(gui.getPlugin(), () -> complete(gui, result, error));
+			}
+		});
+	}
+	
+	private void complete(GuiInventory<?> gui, R result, Throwable error) {
+		setInFlight(gui, false);
+		if(gui.isDestroyed()){
+			return;
+		}
+		if(error != null){
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			if(onError != null){
+				onError.accept(gui, cause);
+			} else {
+				gui.getPlugin().getLogger().log(Level.WARNING, "Async button of menu " + gui.getClass().getName() + " failed", cause);
+			}
+			return;
+		}
+		onComplete.accept(gui, result);
+	}
+	
+	private void setInFlight(GuiInventory<?> gui, boolean inFlight) {
+		this.inFlight = inFlight;
+		if(loadingIcon != null && !gui.isDestroyed()){
+			gui.update();
+		}
+	}
+}
@@ -1,12 +1,17 @@
 package com.wonkglorg.utilitylib.inventory;
 
+import com.wonkglorg.utilitylib.manager.GuiManager;
 import net.kyori.adventure.text.Component;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @author Wonkglorg
@@ -15,6 +20,10 @@ import java.util.function.Consumer;
 public abstract class Button{
 	
 	protected ItemStack item;
+	/**
+	 * The shared icon of this button, null if the button displays {@link #item} instead
+	 */
+	private Icon icon;
 	private int slot;
 	
 	/**
@@ -95,15 +104,115 @@ public abstract class Button{
 		};
 	}
 	
+	/**
+	 * Create an ItemButton from the given ItemStack and listener, setting the name and lore of the item. Use
+	 * {@link com.wonkglorg.utilitylib.inventory.text.TextTemplate} and {@link com.wonkglorg.utilitylib.inventory.text.LoreTemplate} to render them
+	 * without parsing MiniMessage for every button.
+	 *
+	 * @param itemName The name of the item
+	 * @param lore The lore of the item
+	 * @param item The ItemStack to be used as this button's icon
+	 * @param listener The listener which will be called whenever this button is clicked
+	 * @return The ItemButton, which can be added to an InventoryGUI
+	 */
+	public static Button create(Component itemName, List<Component> lore, ItemStack item, Consumer<InventoryClickEvent> listener) {
+		ItemMeta itemMeta = item.getItemMeta();
+		if(itemMeta != null){
+			itemMeta.lore(lore);
+			item.setItemMeta(itemMeta);
+		}
+		return create(itemName, item, listener);
+	}
+	
+	/**
+	 * Create an ItemButton from a shared icon, the icon is not copied so the same icon can be used by any number of buttons. {@link #getItem()} returns
+	 * a copy of the icon, use {@link #setIcon(Icon)} to change it
+	 *
+	 * @param icon The icon of this button
+	 * @param listener The listener which will be called whenever this button is clicked
+	 * @return The ItemButton, which can be added to an InventoryGUI
+	 */
+	public static Button create(Icon icon, Consumer<InventoryClickEvent> listener) {
+		return new Button(icon){
+			
+			@Override
+			public void onClick(InventoryClickEvent e) {
+				listener.accept(e);
+			}
+			
+		};
+	}
+	
+	/**
+	 * Create an ItemButton from a shared icon, the icon is not copied so the same icon can be used by any number of buttons. {@link #getItem()} returns
+	 * a copy of the icon, use {@link #setIcon(Icon)} to change it
+	 *
+	 * @param icon The icon of this button
+	 * @param listener The listener which will be called whenever this button is clicked and accepts the event and button
+	 * @return The ItemButton, which can be added to an InventoryGUI
+	 */
+	public static Button create(Icon icon, BiConsumer<InventoryClickEvent, Button> listener) {
+		return new Button(icon){
+			
+			@Override
+			public void onClick(InventoryClickEvent e) {
+				listener.accept(e, this);
+			}
+			
+		};
+	}
+	
+	/**
+	 * Create a button whose icon depends on a state, the icon of every state and locale is only built once and then taken from the
+	 * {@link GuiManager#getIconCache()}. The state is read every time the button is rendered so {@link GuiInventory#update()} picks up state changes
+	 * without rebuilding the item.
+	 *
+	 * @param iconId The id of the icon in the cache, buttons with the same id share their icons
+	 * @param state Gets the current state of the button (for example whether a setting is enabled)
+	 * @param locale The locale the icon is displayed in (usually the locale of the menu's player)
+	 * @param factory Builds the icon of a state and locale when it is not cached yet
+	 * @param listener The listener which will be called whenever this button is clicked
+	 * @return The CachedButton, which can be added to an InventoryGUI
+	 */
+	public static <S> CachedButton<S> createCached(String iconId, Supplier<S> state, Locale locale, BiFunction<S, Locale, Icon> factory,
+			Consumer<InventoryClickEvent> listener) {
+		return createCached(GuiManager.getIconCache(), iconId, state, locale, factory, listener);
+	}
+	
+	/**
+	 * Create a button whose icon depends on a state, the icon of every state and locale is only built once and then taken from the given cache
+	 *
+	 * @param cache The cache to keep the icons in
+	 * @param iconId The id of the icon in the cache, buttons with the same id share their icons
+	 * @param state Gets the current state of the button (for example whether a setting is enabled)
+	 * @param locale The locale the icon is displayed in (usually the locale of the menu's player)
+	 * @param factory Builds the icon of a state and locale when it is not cached yet
+	 * @param listener The listener which will be called whenever this button is clicked
+	 * @return The CachedButton, which can be added to an InventoryGUI
+	 */
+	public static <S> CachedButton<S> createCached(IconCache cache, String iconId, Supplier<S> state, Locale locale, BiFunction<S, Locale, Icon> factory,
+			Consumer<InventoryClickEvent> listener) {
+		return new CachedButton<>(cache, iconId, state, locale, factory, listener);
+	}
+	
 	/**
 	 * Create a new ItemButton with the given ItemStack as the icon
 	 *
 	 * @param item The ItemStack to be used as the icon
 	 */
-	private Button(ItemStack item) {
+	Button(ItemStack item) {
 		this.item = item;
 	}
 	
+	/**
+	 * Create a new ItemButton with a shared icon
+	 *
+	 * @param icon The icon, not copied
+	 */
+	Button(Icon icon) {
+		this.icon = icon;
+	}
+	
 	private Button(Component itemName, ItemStack item) {
 		this.item = item;
 		ItemMeta itemMeta = item.getItemMeta();
@@ -129,12 +238,23 @@ public abstract class Button{
 	}
 	
 	/**
-	 * Get the ItemStack representing the icon for this button
+	 * Get the ItemStack representing the icon for this button, if the button displays an {@link Icon} this is a copy of it so changing it does not
+	 * change the button
 	 *
 	 * @return The ItemStack
 	 */
 	public ItemStack getItem() {
-		return item;
+		return icon != null ? icon.toItemStack() : item;
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, the item written to the inventory when this button is rendered. Unlike {@link #getItem()} this is the shared item of the
+	 * icon which must never be modified
+	 *
+	 * @return The item to render
+	 */
+	ItemStack sharedItem() {
+		return icon != null ? icon.shared() : getItem();
 	}
 	
 	protected int getSlot() {
@@ -153,6 +273,18 @@ public abstract class Button{
 	 */
 	public void setItem(ItemStack item) {
 		this.item = item;
+		this.icon = null;
+	}
+	
+	/**
+	 * Update the icon of this button without copying it. Does not refresh the InventoryGUI; you must call {@link GuiInventory#update()} for this
+	 * change to be reflected in the GUI.
+	 *
+	 * @param icon The icon to become the icon for this button
+	 */
+	public void setIcon(Icon icon) {
+		this.icon = icon;
+		this.item = null;
 	}
 	
 	public abstract void onClick(InventoryClickEvent e);
@@ -0,0 +1,141 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import lombok.Getter;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Locale;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A button whose icon depends on a state, the icon of every state and locale is only built once and then taken from an {@link IconCache}. The state is
+ * read every time the button is rendered so {@link GuiInventory#update()} picks up state changes without rebuilding the item. Create one with
+ * {@link Button#createCached(String, Supplier, Locale, BiFunction, Consumer)}.
+ * <p>
+ * Giving the button its own item or icon with {@link #setItem(ItemStack)} or {@link #setIcon(Icon)} detaches it from the cache, it then behaves like a
+ * normal button until a new state is set with {@link #setState(Supplier)}.
+ *
+ * @param <S> The type of the state
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class CachedButton<S> extends Button{
+	
+	private final IconCache cache;
+	/**
+	 * The id of the icon in the cache, buttons with the same id share their icons
+	 */
+	@Getter
+	private final String iconId;
+	/**
+	 * Builds the icon of a state and locale when it is not cached yet
+	 */
+	private final BiFunction<S, Locale, Icon> factory;
+	private final Consumer<InventoryClickEvent> listener;
+	/**
+	 * Gets the current state of the button
+	 */
+	private Supplier<S> state;
+	/**
+	 * The locale the icon is displayed in
+	 */
+	@Getter
+	private Locale locale;
+	/**
+	 * Whether the icon is taken from the cache, false once the button was given its own item or icon
+	 */
+	@Getter
+	private boolean attached = true;
+	
+	CachedButton(IconCache cache, String iconId, Supplier<S> state, Locale locale, BiFunction<S, Locale, Icon> factory,
+			Consumer<InventoryClickEvent> listener) {
+		super((ItemStack) null);
+		this.cache = cache;
+		this.iconId = iconId;
+		this.state = state;
+		this.locale = locale;
+		this.factory = factory;
+		this.listener = listener;
+	}
+	
+	/**
+	 * @return The current state of the button
+	 */
+	public S getState() {
+		return state.get();
+	}
+	
+	/**
+	 * Changes where the state of the button is read from and attaches the button to the cache again if it was detached. Does not refresh the
+	 * InventoryGUI; you must call {@link GuiInventory#update()} for this change to be reflected in the GUI.
+	 *
+	 * @param state Gets the current state of the button
+	 */
+	public void setState(Supplier<S> state) {
+		this.state = state;
+		this.attached = true;
+	}
+	
+	/**
+	 * Sets a fixed state, see {@link #setState(Supplier)}
+	 *
+	 * @param state The state of the button
+	 */
+	public void setState(S state) {
+		setState(() -> state);
+	}
+	
+	/**
+	 * Changes the locale the icon is displayed in. Does not refresh the InventoryGUI; you must call {@link GuiInventory#update()} for this change to
+	 * be reflected in the GUI.
+	 *
+	 * @param locale The locale
+	 */
+	public void setLocale(Locale locale) {
+		this.locale = locale;
+	}
+	
+	@Override
+	public ItemStack getItem() {
+		return attached ? cachedIcon().toItemStack() : super.getItem();
+	}
+	
+	@Override
+	ItemStack sharedItem() {
+		return attached ? cachedIcon().shared() : super.sharedItem();
+	}
+	
+	/**
+	 * Displays the given item instead of the cached icon, detaching the button from the cache until a new state is set
+	 *
+	 * @param item The item to become the icon for this button
+	 */
+	@Override
+	public void setItem(ItemStack item) {
+		attached = false;
+		super.setItem(item);
+	}
+	
+	/**
+	 * Displays the given icon instead of the cached icon, detaching the button from the cache until a new state is set
+	 *
+	 * @param icon The icon to become the icon for this button
+	 */
+	@Override
+	public void setIcon(Icon icon) {
+		attached = false;
+		super.setIcon(icon);
+	}
+	
+	@Override
+	public void onClick(InventoryClickEvent e) {
+		listener.accept(e);
+	}
+	
+	private Icon cachedIcon() {
+		return cache.get(iconId, state.get(), locale, factory);
+	}
+	
+}
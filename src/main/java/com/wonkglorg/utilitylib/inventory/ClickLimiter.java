@@ -0,0 +1,437 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Limits how fast each player can click in a menu, set it with {@link GuiInventory#setClickLimiter(ClickLimiter)}. Every player gets their own
+ * token bucket: a player can click {@code burst} times in a row, after that one click is allowed every {@code interval}. Clicks over the limit are
+ * cancelled, or with {@link ExcessMode#QUEUE} clicks on buttons are held back and run through the menu's click handling again once the player is
+ * allowed to click again.
+ * <p>
+ * Buttons can additionally get their own cooldown with {@link #setCooldown(Button, long)}, clicks on a button still in cooldown are always cancelled
+ * (debounce) and never queued. The limiter is checked before any click handler runs, throttled clicks never reach the menu.
+ * <p>
+ * Not thread safe, only use it from the main thread. A limiter can be shared between menus, players are limited per menu: their history starts over
+ * when they click in a different menu, so clicks held back in one menu never hold up another. The state of a player is forgotten once they haven't clicked for {@link #IDLE_EXPIRY_NANOS a minute} and their clicks and cooldowns are refilled, so a forgotten player
+ * starts out exactly where they would have been.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class ClickLimiter{
+	
+	/**
+	 * The time a player's bucket has to be full before their state is forgotten
+	 */
+	private static final long IDLE_EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+	/**
+	 * The time between two sweeps for idle players
+	 */
+	private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+	
+	/**
+	 * What happens to clicks over the limit
+	 */
+	public enum ExcessMode{
+		/**
+		 * Excess clicks are cancelled and dropped
+		 */
+		CANCEL,
+		/**
+		 * Excess clicks on buttons are cancelled and the button runs once the player is allowed to click again (up to
+		 * {@link #getMaxQueuedClicks()} clicks per player), all other excess clicks are cancelled
+		 */
+		QUEUE
+	}
+	
+	/**
+	 * The amount of clicks allowed in a row before the limit kicks in
+	 */
+	@Getter
+	private final int burst;
+	/**
+	 * The time a player has to wait for each click over the burst in nanoseconds
+	 */
+	private final long intervalNanos;
+	
+	/**
+	 * What happens to clicks over the limit
+	 */
+	@Getter
+	@Setter
+	private ExcessMode excessMode = ExcessMode.CANCEL;
+	/**
+	 * The maximum amount of clicks held back per player in {@link ExcessMode#QUEUE}, further clicks are dropped
+	 */
+	@Getter
+	@Setter
+	private int maxQueuedClicks = 3;
+	/**
+	 * Runs for every throttled click (after it was cancelled), can be used to warn the player
+	 */
+	@Setter
+	private Consumer<InventoryClickEvent> onThrottled;
+	
+	/**
+	 * The amount of clicks that were over the limit (queued or not)
+	 */
+	@Getter
+	private long throttledClicks = 0;
+	/**
+	 * The amount of clicks on buttons still in cooldown
+	 */
+	@Getter
+	private long cooldownClicks = 0;
+	/**
+	 * The amount of clicks held back in {@link ExcessMode#QUEUE}
+	 */
+	@Getter
+	private long queuedClicks = 0;
+	/**
+	 * The amount of held back clicks that were dropped because the queue was full or the menu was closed before they could run
+	 */
+	@Getter
+	private long droppedClicks = 0;
+	
+	/**
+	 * The cooldown of every button with a cooldown in nanoseconds, weakly keyed so the buttons of destroyed menus can be collected (buttons don't
+	 * override equals so they are still matched by identity)
+	 */
+	private final Map<Button, Long> cooldowns = new WeakHashMap<>();
+	/**
+	 * The longest cooldown set so far, a player is only forgotten once it passed since their last button click
+	 */
+	private long longestCooldownNanos = 0;
+	private final Map<UUID, PlayerState> players = new HashMap<>();
+	/**
+	 * The amount of clicks held back across all players, destroyed menus only have to look for their clicks if there are any
+	 */
+	private int heldBackClicks = 0;
+	private long lastSweep = System.nanoTime();
+	
+	private ClickLimiter(int burst, long intervalNanos) {
+		if(burst <= 0){
+			throw new IllegalArgumentException("The burst must be positive!");
+		}
+		if(intervalNanos < 0){
+			throw new IllegalArgumentException("The interval can't be negative!");
+		}
+		this.burst = burst;
+		this.intervalNanos = intervalNanos;
+	}
+	
+	/**
+	 * Creates a limiter allowing a burst of clicks which then refills at a fixed rate
+	 *
+	 * @param burst The amount of clicks allowed in a row
+	 * @param clicksPerSecond The amount of clicks allowed per second once the burst is used up
+	 * @return The limiter
+	 */
+	public static ClickLimiter tokenBucket(int burst, double clicksPerSecond) {
+		if(clicksPerSecond <= 0){
+			throw new IllegalArgumentException("The click rate must be positive!");
+		}
+		return new ClickLimiter(burst, (long) (TimeUnit.SECONDS.toNanos(1) / clicksPerSecond));
+	}
+	
+	/**
+	 * Creates a limiter requiring a minimum time between two clicks of the same player
+	 *
+	 * @param millis The minimum time between two clicks in milliseconds
+	 * @return The limiter
+	 */
+	public static ClickLimiter minInterval(long millis) {
+		return new ClickLimiter(1, TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+	
+	/**
+	 * Sets the cooldown of a button, a player can only click the button once per cooldown
+	 *
+	 * @param button The button
+	 * @param millis The cooldown in milliseconds (0 or less removes the cooldown)
+	 * @return This limiter
+	 */
+	public ClickLimiter setCooldown(Button button, long millis) {
+		if(millis <= 0){
+			cooldowns.remove(button);
+		} else {
+			long cooldown = TimeUnit.MILLISECONDS.toNanos(millis);
+			cooldowns.put(button, cooldown);
+			longestCooldownNanos = Math.max(longestCooldownNanos, cooldown);
+		}
+		return this;
+	}
+	
+	/**
+	 * @return The minimum time between two clicks once the burst is used up in milliseconds
+	 */
+	public long getIntervalMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+	}
+	
+	/**
+	 * @param player The player
+	 * @return The amount of clicks of the player that were over the limit or on buttons in cooldown in the menu they last clicked in, counted since
+	 * the player was last forgotten for being idle
+	 */
+	public long getThrottledClicks(UUID player) {
+		PlayerState state = players.get(player);
+		return state == null ? 0 : state.throttled;
+	}
+	
+	/**
+	 * Forgets the click history of a player, dropping any clicks still held back
+	 *
+	 * @param player The player
+	 */
+	public void reset(UUID player) {
+		PlayerState state = players.remove(player);
+		if(state != null){
+			droppedClicks += state.queue.size();
+			heldBackClicks -= state.queue.size();
+		}
+	}
+	
+	/**
+	 * Forgets the click history of all players and resets the counters
+	 */
+	public void reset() {
+		players.clear();
+		heldBackClicks = 0;
+		throttledClicks = 0;
+		cooldownClicks = 0;
+		queuedClicks = 0;
+		droppedClicks = 0;
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, automatically called by {@link GuiInventory#onClick(InventoryClickEvent)}. Checks whether a click is allowed, throttled
+	 * clicks are cancelled and possibly queued
+	 *
+	 * @param gui The menu the click happened in
+	 * @param e The click event
+	 * @return Whether the click is allowed and should be handled now
+	 */
+	public boolean tryClick(GuiInventory<?> gui, InventoryClickEvent e) {
+		long now = System.nanoTime();
+		if(now - lastSweep >= SWEEP_INTERVAL_NANOS){
+			forgetIdlePlayers(now);
+		}
+		UUID uuid = e.getWhoClicked().getUniqueId();
+		PlayerState state = players.get(uuid);
+		if(state == null || state.menu.get() != gui){
+			if(state != null){
+				dropHeldBackClicks(state);
+			}
+			state = new PlayerState(now, gui);
+			players.put(uuid, state);
+		}
+		Button button = gui.getInventory().equals(e.getClickedInventory()) ? gui.getButton(e.getSlot()) : null;
+		
+		if(button != null){
+			Long cooldown = cooldowns.get(button);
+			Long last = state.lastButtonClicks.get(button);
+			if(cooldown != null && last != null && now - last < cooldown){
+				cooldownClicks++;
+				throttle(state, e);
+				return false;
+			}
+		}
+		
+		//clicks have to wait behind the ones already held back to keep their order
+		if(state.queue.isEmpty() && state.take(now)){
+			if(button != null && cooldowns.containsKey(button)){
+				state.buttonClicked(button, now);
+			}
+			return true;
+		}
+		
+		throttledClicks++;
+		throttle(state, e);
+		if(excessMode == ExcessMode.QUEUE && button != null){
+			if(state.queue.size() >= maxQueuedClicks){
+				droppedClicks++;
+				return false;
+			}
+			queuedClicks++;
+			heldBackClicks++;
+			state.queue.add(new QueuedClick(gui, button, e.getWhoClicked(), e.getSlot(), e.getClick(), e.getAction()));
+			if(state.queue.size() == 1){
+				schedule(gui, uuid, state, now);
+			}
+		}
+		return false;
+	}
+	
+	private void throttle(PlayerState state, InventoryClickEvent e) {
+		state.throttled++;
+		e.setCancelled(true);
+		if(onThrottled != null){
+			onThrottled.accept(e);
+		}
+	}
+	
+	/**
+	 * Schedules the next held back click of a player for when the player is allowed to click again
+	 */
+	private void schedule(GuiInventory<?> gui, UUID uuid, PlayerState state, long now) {
+		long ticks = Math.max(1, TimeUnit.NANOSECONDS.toMillis(state.waitTime(now)) / 50 + 1);
+		Bukkit.getScheduler().runTaskLater(gui.getPlugin(), () -> drain(uuid, state), ticks);
+	}
+	
+	/**
+	 * Runs the held back clicks of a player that are allowed by now through the click handling of their menu, dropping clicks whose menu is gone or
+	 * whose button was replaced
+	 */
+	private void drain(UUID uuid, PlayerState state) {
+		if(players.get(uuid) != state){
+			return;
+		}
+		long now = System.nanoTime();
+		while(!state.queue.isEmpty()){
+			QueuedClick click = state.queue.peek();
+			if(!click.isValid()){
+				state.queue.poll();
+				heldBackClicks--;
+				droppedClicks++;
+				continue;
+			}
+			if(!state.take(now)){
+				schedule(click.gui(), uuid, state, now);
+				return;
+			}
+			state.queue.poll();
+			heldBackClicks--;
+			if(cooldowns.containsKey(click.button())){
+				state.buttonClicked(click.button(), now);
+			}
+			if(!click.gui().replayClick(click.player(), click.slot(), click.click(), click.action())){
+				droppedClicks++;
+			}
+		}
+	}
+	
+	private void dropHeldBackClicks(PlayerState state) {
+		heldBackClicks -= state.queue.size();
+		droppedClicks += state.queue.size();
+		state.queue.clear();
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, automatically called when a menu using this limiter is destroyed. Drops the clicks held back in the menu so the
+	 * limiter does not keep the destroyed menu alive
+	 *
+	 * @param gui The destroyed menu
+	 */
+	public void menuDestroyed(GuiInventory<?> gui) {
+		if(heldBackClicks == 0){
+			return;
+		}
+		for(PlayerState state : players.values()){
+			if(state.menu.get() == gui){
+				dropHeldBackClicks(state);
+			}
+		}
+	}
+	
+	/**
+	 * Forgets the players that have been idle for a while, their state is the same as that of a player who never clicked
+	 */
+	private void forgetIdlePlayers(long now) {
+		lastSweep = now;
+		players.values().removeIf(state -> state.isIdle(now));
+	}
+	
+	/**
+	 * The click history of a single player in a single menu, stored as the time the bucket is completely refilled again (generic cell rate algorithm) so no timer is
+	 * needed to refill it
+	 */
+	private final class PlayerState{
+		private long fullAt;
+		private long throttled = 0;
+		/**
+		 * The last click on every button with a cooldown, weakly keyed like {@link #cooldowns}
+		 */
+		private final Map<Button, Long> lastButtonClicks = new WeakHashMap<>();
+		private long lastButtonClick;
+		private final Deque<QueuedClick> queue = new ArrayDeque<>();
+		/**
+		 * The menu this history belongs to, weak so a forgotten menu can be collected before the player clicks again
+		 */
+		private final WeakReference<GuiInventory<?>> menu;
+		
+		private PlayerState(long now, GuiInventory<?> menu) {
+			this.fullAt = now;
+			this.menu = new WeakReference<>(menu);
+		}
+		
+		/**
+		 * Takes a click from the bucket if one is left
+		 */
+		private boolean take(long now) {
+			long start = Math.max(fullAt, now);
+			if(start - now > (burst - 1) * intervalNanos){
+				return false;
+			}
+			fullAt = start + intervalNanos;
+			return true;
+		}
+		
+		private void buttonClicked(Button button, long now) {
+			lastButtonClicks.put(button, now);
+			lastButtonClick = now;
+		}
+		
+		/**
+		 * @return Whether nothing is held back, the bucket has been full for {@link #IDLE_EXPIRY_NANOS} and every button cooldown is over
+		 */
+		private boolean isIdle(long now) {
+			return queue.isEmpty() && now - fullAt >= IDLE_EXPIRY_NANOS && (lastButtonClicks.isEmpty()
+					|| now - lastButtonClick >= longestCooldownNanos);
+		}
+		
+		/**
+		 * @return The time until the next click is allowed in nanoseconds
+		 */
+		private long waitTime(long now) {
+			return Math.max(0, fullAt - now - (burst - 1) * intervalNanos);
+		}
+	}
+	
+	/**
+	 * A click held back until the player is allowed to click again, only what is needed to run the click again is kept as the original event is
+	 * cancelled and over by then
+	 *
+	 * @param gui The menu the click happened in
+	 * @param button The clicked button
+	 * @param player The player who clicked
+	 * @param slot The clicked slot
+	 * @param click The type of click
+	 * @param action The action of the click
+	 */
+	private record QueuedClick(GuiInventory<?> gui, Button button, HumanEntity player, int slot, ClickType click, InventoryAction action){
+		
+		/**
+		 * @return Whether the menu still exists and the button is still in its slot, {@link GuiInventory#replayClick} checks the menu is still open
+		 */
+		private boolean isValid() {
+			return !gui.isDestroyed() && gui.getButton(slot) == button;
+		}
+	}
+}
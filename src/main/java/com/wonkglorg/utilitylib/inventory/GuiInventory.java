@@ -1,12 +1,16 @@
 package com.wonkglorg.utilitylib.inventory;
 
+import com.wonkglorg.utilitylib.inventory.jfr.MenuClickEvent;
+import com.wonkglorg.utilitylib.inventory.jfr.MenuDestroyEvent;
+import com.wonkglorg.utilitylib.inventory.jfr.MenuOpenEvent;
 import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
 import com.wonkglorg.utilitylib.manager.GuiManager;
+import com.wonkglorg.utilitylib.manager.MenuTypeMetrics;
+import com.wonkglorg.utilitylib.manager.TickWheel;
 import lombok.Getter;
 import lombok.Setter;
 import net.kyori.adventure.text.Component;
-import org.bukkit.Bukkit;
-import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryAction;
@@ -23,7 +27,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -57,12 +61,35 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	/**
 	 * The backing minecraft inventory
 	 */
-	@Getter
 	private final Inventory inventory;
+	/**
+	 * The items this GUI wants to display in each slot, changes are collected here and only written to the {@link #inventory} on {@link #flush()}
+	 */
+	private final ItemStack[] slotItems;
+	/**
+	 * The items last written to the {@link #inventory} by {@link #flush()}
+	 */
+	private final ItemStack[] renderedItems;
+	/**
+	 * Bitmask of the slots changed since the last {@link #flush()} (bit n set means slot n is dirty)
+	 */
+	private long dirtySlots = 0;
+	/**
+	 * Bitmask of the slots that have to be written on the next {@link #flush()} even if their item did not change
+	 */
+	private long forcedSlots = 0;
+	/**
+	 * How many renders are currently running, while greater than 0 changes are only collected and flushed once the outermost render ends
+	 */
+	private int renderDepth = 0;
+	/**
+	 * Whether a flush of this GUI is already scheduled for the end of the current tick
+	 */
+	private boolean renderScheduled = false;
 	/**
 	 * The slots that are open for items to be placed in and moved out of (0-indexed) this gets ignored by the pagination gui if used in the same inventory region, (this does not include {@link #returnItems} this will always return items in open slots even if they include pagination slots)
 	 */
-	protected final Set<Integer> openSlots = new LinkedHashSet<>();
+	protected final SlotSet openSlots = new SlotSet();
 	/**
 	 * Runs when the GUI is destroyed (should be used to clean up any resources)
 	 */
@@ -111,6 +138,12 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	@Getter
 	@Setter
 	private boolean disableClickEvent = false;
+	/**
+	 * Limits how fast players can click in this GUI (null for no limit)
+	 */
+	@Getter
+	@Setter
+	private ClickLimiter clickLimiter;
 	
 	/**
 	 * The pagination GUIs that are part of this GUI (if any)
@@ -118,7 +151,20 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	private final Set<PaginationGui> paginationGuis = new HashSet<>();
 	
 	/**
-	 * The Owning players inventory profile
+	 * The ticking components of this GUI with their period, components added before the GUI was opened are only scheduled once it opens
+	 */
+	private final Map<TickingComponent, Integer> tickingComponents = new IdentityHashMap<>();
+	/**
+	 * The scheduled task of every ticking component once the GUI was opened
+	 */
+	private final Map<TickingComponent, TickWheel.Task> tickingTasks = new IdentityHashMap<>();
+	/**
+	 * Whether the GUI was opened and ticking components are running
+	 */
+	private boolean ticking = false;
+	
+	/**
+	 * The Owning players inventory profile, null if the menu has no single owner (like a {@link SharedGuiInventory})
 	 */
 	@Getter
 	protected T profile;
@@ -133,21 +179,62 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	@Setter
 	private boolean returnItems = true;
 	
+	/**
+	 * The item shown in every slot while the menu waits to be built when the {@link GuiManager#getRenderQueue()} is enabled (null to show an empty
+	 * inventory instead)
+	 */
+	@Getter
+	@Setter
+	private ItemStack placeholderItem;
+	
 	/**
 	 * Whether or not the GUI has been destroyed (this menu should not be used anymore if it was marked as destroyed)
 	 */
 	@Getter
 	private boolean isDestroyed = false;
 	
+	/**
+	 * The title the inventory was created with if it came from the {@link GuiManager#getInventoryPool()} (null if it was passed in by the caller)
+	 */
+	private final Component pooledTitle;
+	/**
+	 * Whether the inventory was returned to the pool after this GUI was destroyed, from then on it may belong to another menu and this GUI never
+	 * touches it again
+	 */
+	private boolean inventoryReleased = false;
+	
+	/**
+	 * The metrics of this GUI's class
+	 */
+	@Getter
+	private final MenuTypeMetrics metrics;
+	
 	/**
 	 * Creates a new GUI from an inventory
 	 *
 	 * @param inventory The inventory to create a GUI from
 	 */
 	protected GuiInventory(Inventory inventory, JavaPlugin plugin, T profile) {
+		this(inventory, null, plugin, profile);
+	}
+	
+	/**
+	 * Creates a new GUI from an inventory
+	 *
+	 * @param inventory The inventory to create a GUI from
+	 * @param pooledTitle The title of the inventory if it was taken from the inventory pool
+	 */
+	private GuiInventory(Inventory inventory, Component pooledTitle, JavaPlugin plugin, T profile) {
+		if(inventory.getSize() > Long.SIZE){
+			throw new IllegalArgumentException("Inventories with more than " + Long.SIZE + " slots are not supported!");
+		}
 		this.plugin = plugin;
 		this.profile = profile;
 		this.inventory = inventory;
+		this.pooledTitle = pooledTitle;
+		this.slotItems = new ItemStack[inventory.getSize()];
+		this.renderedItems = new ItemStack[inventory.getSize()];
+		this.metrics = GuiManager.getMetrics().forType(getClass());
 		cleaner.register(this, new CleanupTask(this));
 		registerDefaultClicks();
 	}
@@ -159,7 +246,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param name The name of the inventory
 	 */
 	protected GuiInventory(int size, Component name, JavaPlugin plugin, T profile) {
-		this(Bukkit.createInventory(null, size, name), plugin, profile);
+		this(GuiManager.getInventoryPool().acquire(size, name), name, plugin, profile);
 	}
 	
 	/**
@@ -169,7 +256,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param name The name of the inventory
 	 */
 	protected GuiInventory(InventorySize inventorySize, Component name, JavaPlugin plugin, T profile) {
-		this(Bukkit.createInventory(null, inventorySize.getSize(), name), plugin, profile);
+		this(inventorySize.getSize(), name, plugin, profile);
 	}
 	
 	/**
@@ -189,7 +276,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param name The name of the inventory
 	 */
 	protected GuiInventory(int size, Component name, JavaPlugin plugin, Player player) {
-		this(Bukkit.createInventory(null, size, name), plugin, player);
+		this(size, name, plugin, (T) new MenuProfile(player));
 	}
 	
 	/**
@@ -199,7 +286,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param name The name of the inventory
 	 */
 	protected GuiInventory(InventorySize inventorySize, Component name, JavaPlugin plugin, Player player) {
-		this(Bukkit.createInventory(null, inventorySize.getSize(), name), plugin, player);
+		this(inventorySize.getSize(), name, plugin, (T) new MenuProfile(player));
 	}
 	
 	/**
@@ -215,8 +302,8 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 */
 	public void addButton(Button button, int slot) {
 		button.setSlot(slot);
-		inventory.setItem(slot, button.getItem());
 		buttons.put(slot, button);
+		renderSlot(slot, button.sharedItem());
 	}
 	
 	/**
@@ -226,8 +313,18 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param slot The slot to set the item in
 	 */
 	public void addItem(ItemStack item, int slot) {
-		inventory.setItem(slot, item);
-		buttons.put(slot, null);
+		buttons.remove(slot);
+		renderSlot(slot, item);
+	}
+	
+	/**
+	 * Sets the icon in the given slot, the icon is shared and not copied
+	 *
+	 * @param icon The icon to set
+	 * @param slot The slot to set the icon in
+	 */
+	public void addIcon(Icon icon, int slot) {
+		addItem(icon.shared(), slot);
 	}
 	
 	/**
@@ -262,6 +359,25 @@ public abstract class GuiInventory<T extends MenuProfile>{
 		addButton(button, slot);
 	}
 	
+	/**
+	 * Applies a precompiled layout to this GUI, adding its items, buttons and open slots in one go. Usually called first in {@link #addComponents()}
+	 * followed by the slots that are different for every player
+	 *
+	 * @param layout The layout to apply
+	 * @throws IllegalArgumentException if the layout was made for a different inventory size
+	 */
+	public void applyLayout(GuiLayout layout) {
+		if(layout.getSize() != inventory.getSize()){
+			throw new IllegalArgumentException("Layout of size " + layout.getSize() + " does not fit inventory of size " + inventory.getSize());
+		}
+		beginRender();
+		try{
+			layout.apply(this);
+		} finally{
+			endRender();
+		}
+	}
+	
 	/**
 	 * Fills the inventory with the given item
 	 *
@@ -271,6 +387,15 @@ public abstract class GuiInventory<T extends MenuProfile>{
 		fill(0, inventory.getSize() - 1, item);
 	}
 	
+	/**
+	 * Fills the inventory with the given icon, every slot shares the same icon instead of getting its own copy
+	 *
+	 * @param icon The icon to set
+	 */
+	public void fill(Icon icon) {
+		fill(0, inventory.getSize() - 1, icon);
+	}
+	
 	/**
 	 * Fill a section of the inventory with the given button
 	 *
@@ -288,8 +413,33 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param item The item to set in these slots
 	 */
 	public void fill(int start, int end, ItemStack item) {
-		for(int i = start; i <= end; i++){
-			inventory.setItem(i, item == null ? null : item.clone());
+		beginRender();
+		try{
+			for(int i = start; i <= end; i++){
+				buttons.remove(i);
+				renderSlot(i, item == null ? null : item.clone());
+			}
+		} finally{
+			endRender();
+		}
+	}
+	
+	/**
+	 * Fill a section of the inventory with the given icon, every slot shares the same icon instead of getting its own copy
+	 *
+	 * @param start The starting index to fill from, inclusive
+	 * @param end The ending index to fill to, inclusive
+	 * @param icon The icon to set in these slots
+	 */
+	public void fill(int start, int end, Icon icon) {
+		beginRender();
+		try{
+			for(int i = start; i <= end; i++){
+				buttons.remove(i);
+				renderSlot(i, icon.shared());
+			}
+		} finally{
+			endRender();
 		}
 	}
 	
@@ -301,8 +451,13 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param button The button to set in these slots
 	 */
 	public void fill(int start, int end, Button button) {
-		for(int i = start; i <= end; i++){
-			addButton(button, i);
+		beginRender();
+		try{
+			for(int i = start; i <= end; i++){
+				addButton(button, i);
+			}
+		} finally{
+			endRender();
 		}
 	}
 	
@@ -316,10 +471,38 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param item The item to set in these slots
 	 */
 	public void fill(int x1, int y1, int x2, int y2, ItemStack item) {
-		for(int x = x1; x <= x2; x++){
-			for(int y = y1; y <= y2; y++){
-				inventory.setItem(x + (y * 9), item == null ? null : item.clone());
+		beginRender();
+		try{
+			for(int x = x1; x <= x2; x++){
+				for(int y = y1; y <= y2; y++){
+					buttons.remove(x + (y * 9));
+					renderSlot(x + (y * 9), item == null ? null : item.clone());
+				}
+			}
+		} finally{
+			endRender();
+		}
+	}
+	
+	/**
+	 * Fill a section of the inventory with the given icon, every slot shares the same icon instead of getting its own copy
+	 *
+	 * @param x1 The X position to fill from, inclusive
+	 * @param y1 The Y position to fill from, inclusive
+	 * @param x2 The X position to fill to, inclusive
+	 * @param y2 The Y position to fill to, inclusive
+	 * @param icon The icon to set in these slots
+	 */
+	public void fill(int x1, int y1, int x2, int y2, Icon icon) {
+		beginRender();
+		try{
+			for(long remaining = SlotSet.rectMask(x1, y1, x2, y2); remaining != 0; remaining &= remaining - 1){
+				int slot = Long.numberOfTrailingZeros(remaining);
+				buttons.remove(slot);
+				renderSlot(slot, icon.shared());
 			}
+		} finally{
+			endRender();
 		}
 	}
 	
@@ -333,10 +516,15 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param button The button to set in these slots
 	 */
 	public void fill(int x1, int y1, int x2, int y2, Button button) {
-		for(int x = x1; x <= x2; x++){
-			for(int y = y1; y <= y2; y++){
-				addButton(button, x, y);
+		beginRender();
+		try{
+			for(int x = x1; x <= x2; x++){
+				for(int y = y1; y <= y2; y++){
+					addButton(button, x, y);
+				}
 			}
+		} finally{
+			endRender();
 		}
 	}
 	
@@ -346,8 +534,8 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param button The button to be removed
 	 */
 	public void removeButton(Button button) {
-		inventory.setItem(button.getSlot(), new ItemStack(Material.AIR));
 		buttons.remove(button.getSlot());
+		renderSlot(button.getSlot(), null);
 	}
 	
 	/**
@@ -356,8 +544,8 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param slot Slot to be removed
 	 */
 	public void removeButton(int slot) {
-		inventory.setItem(slot, new ItemStack(Material.AIR));
 		buttons.remove(slot);
+		renderSlot(slot, null);
 	}
 	
 	/**
@@ -388,25 +576,182 @@ public abstract class GuiInventory<T extends MenuProfile>{
 			removeButton(button);
 			return;
 		}
-		inventory.setItem(slot, new ItemStack(Material.AIR));
+		renderSlot(slot, null);
 	}
 	
 	/**
-	 * Refresh the inventory.
+	 * Refresh the inventory, only buttons whose item changed since the last refresh are written to the inventory. If a button's ItemStack was modified
+	 * in place instead of being replaced with {@link Button#setItem(ItemStack)} use {@link #invalidate(int)} to force its slot to be rewritten.
 	 */
 	public void update() {
-		for(Button button : buttons.values()){
-			inventory.setItem(button.getSlot(), button.getItem());
+		beginRender();
+		try{
+			for(Map.Entry<Integer, Button> entry : buttons.entrySet()){
+				//the same button can be in multiple slots so the slot stored in the button can't be used here
+				renderSlot(entry.getKey(), entry.getValue().sharedItem());
+			}
+		} finally{
+			endRender();
+		}
+	}
+	
+	/**
+	 * Forces a slot to be rewritten on the next flush even if its item did not change (for example after modifying the ItemStack in place)
+	 *
+	 * @param slot The slot to rewrite
+	 */
+	public void invalidate(int slot) {
+		forcedSlots |= 1L << slot;
+		dirtySlots |= 1L << slot;
+	}
+	
+	/**
+	 * Forces every slot to be rewritten on the next flush even if its item did not change
+	 */
+	public void invalidate() {
+		forcedSlots = allSlots();
+		dirtySlots = allSlots();
+	}
+	
+	/**
+	 * Writes all changed slots to the inventory right away, usually called through {@link #requestRender()} at the end of the tick. If most of the inventory changed the whole content is written with a single
+	 * {@link Inventory#setContents(ItemStack[])} call instead
+	 */
+	public void flush() {
+		renderScheduled = false;
+		if(inventoryReleased){
+			dirtySlots = 0;
+			forcedSlots = 0;
+			return;
+		}
+		long changed = 0;
+		for(long remaining = dirtySlots; remaining != 0; remaining &= remaining - 1){
+			int slot = Long.numberOfTrailingZeros(remaining);
+			if((forcedSlots & (1L << slot)) != 0 || slotItems[slot] != renderedItems[slot]){
+				changed |= 1L << slot;
+			}
+		}
+		dirtySlots = 0;
+		forcedSlots = 0;
+		if(changed == 0){
+			return;
+		}
+		metrics.recordRender(Long.bitCount(changed));
+		if(Long.bitCount(changed) > slotItems.length / 2){
+			ItemStack[] contents = inventory.getContents();
+			for(long remaining = changed; remaining != 0; remaining &= remaining - 1){
+				int slot = Long.numberOfTrailingZeros(remaining);
+				contents[slot] = slotItems[slot];
+				renderedItems[slot] = slotItems[slot];
+			}
+			inventory.setContents(contents);
+			return;
+		}
+		for(long remaining = changed; remaining != 0; remaining &= remaining - 1){
+			int slot = Long.numberOfTrailingZeros(remaining);
+			inventory.setItem(slot, slotItems[slot]);
+			renderedItems[slot] = slotItems[slot];
+		}
+	}
+	
+	/**
+	 * Schedules a {@link #flush()} of this GUI for the end of the current tick, so any number of changes made during the tick only cause a single
+	 * render pass. Flushes immediately if the {@link GuiManager} is not initialized.
+	 */
+	public void requestRender() {
+		if(renderScheduled || dirtySlots == 0 || isDestroyed){
+			return;
+		}
+		if(GuiManager.scheduleRender(this)){
+			renderScheduled = true;
+		} else {
+			flush();
+		}
+	}
+	
+	/**
+	 * The item a slot should display, read from this GUI instead of the inventory so it is safe to call after the inventory was returned to the pool.
+	 * This may be the shared item of an {@link Icon}, copy it before handing it to code outside the render path
+	 *
+	 * @param slot The slot
+	 * @return The item or null if the slot is empty
+	 */
+	ItemStack getSlotItem(int slot) {
+		return slotItems[slot];
+	}
+	
+	/**
+	 * Sets the item a slot should display and marks it dirty, the inventory is only written at the end of the tick (see {@link #requestRender()})
+	 *
+	 * @param slot The slot to set
+	 * @param item The item to display in the slot
+	 */
+	private void renderSlot(int slot, ItemStack item) {
+		slotItems[slot] = item;
+		dirtySlots |= 1L << slot;
+		if(openSlots.contains(slot)){
+			//open slots can be changed by players so the last written item can not be trusted
+			forcedSlots |= 1L << slot;
+		}
+		if(renderDepth == 0){
+			requestRender();
 		}
 	}
 	
+	/**
+	 * Starts a render, changes made until the matching {@link #endRender()} are collected and flushed together
+	 */
+	void beginRender() {
+		renderDepth++;
+	}
+	
+	/**
+	 * @return Whether a render is currently running (changes are being collected)
+	 */
+	boolean isRendering() {
+		return renderDepth > 0;
+	}
+	
+	/**
+	 * Ends a render started with {@link #beginRender()}, scheduling the collected changes to be flushed if it was the outermost render
+	 */
+	void endRender() {
+		if(--renderDepth == 0){
+			requestRender();
+		}
+	}
+	
+	/**
+	 * Writes an item to an open slot right away, bypassing the scheduled render (used when the result has to be visible to the very next click)
+	 *
+	 * @param slot The slot to write
+	 * @param item The item to write
+	 */
+	private void writeSlot(int slot, ItemStack item) {
+		slotItems[slot] = item;
+		renderedItems[slot] = item;
+		if(inventoryReleased){
+			return;
+		}
+		metrics.recordRender(1);
+		inventory.setItem(slot, item);
+	}
+	
+	/**
+	 * Resets the tracked slot state after the inventory was cleared
+	 */
+	private void resetSlots() {
+		Arrays.fill(slotItems, null);
+		Arrays.fill(renderedItems, null);
+		dirtySlots = 0;
+		forcedSlots = 0;
+	}
+	
 	/**
 	 * Opens all slots so that items can be placed in them (by default all open slots will be returned to the player when the inventory is closed, can be toggled using {@link #setReturnItems(boolean)})
 	 */
 	public void openAllSlots() {
-		for(int i = 0; i < inventory.getSize(); i++){
-			openSlots.add(i);
-		}
+		openSlots.addRange(0, inventory.getSize() - 1);
 	}
 	
 	/**
@@ -425,9 +770,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param end The end of the open slot section, inclusive  (0-indexed)
 	 */
 	public void openSlots(int start, int end) {
-		for(int i = start; i <= end; i++){
-			openSlots.add(i);
-		}
+		openSlots.addRange(start, end);
 	}
 	
 	/**
@@ -439,11 +782,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param y2 The y position to open to, inclusive  (0-indexed)
 	 */
 	public void openSlots(int x1, int y1, int x2, int y2) {
-		for(int y = y1; y <= y2; y++){
-			for(int x = x1; x <= x2; x++){
-				openSlots.add(y * MAX_ROWS + x);
-			}
-		}
+		openSlots.addRect(x1, y1, x2, y2);
 	}
 	
 	/**
@@ -462,9 +801,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param end The end of the open closed section, inclusive  (0-indexed)
 	 */
 	public void closeSlots(int start, int end) {
-		for(int i = start; i <= end; i++){
-			openSlots.remove(i);
-		}
+		openSlots.removeRange(start, end);
 	}
 	
 	/**
@@ -476,26 +813,203 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * @param y2 The y position to close to, inclusive  (0-indexed)
 	 */
 	public void closeSlots(int x1, int y1, int x2, int y2) {
-		for(int y = y1; y <= y2; y++){
-			for(int x = x1; x <= x2; x++){
-				openSlots.remove(y * MAX_ROWS + x);
-			}
+		openSlots.removeRect(x1, y1, x2, y2);
+	}
+	
+	/**
+	 * @return The backing minecraft inventory
+	 * @throws IllegalStateException if this GUI was destroyed and its inventory was returned to the {@link GuiManager#getInventoryPool()}, from then
+	 * on the inventory may belong to another player's menu
+	 */
+	public Inventory getInventory() {
+		if(inventoryReleased){
+			throw new IllegalStateException("The inventory of this destroyed menu was returned to the pool and may belong to another menu!");
 		}
+		return inventory;
+	}
+	
+	/**
+	 * @return Whether this GUI was destroyed and its inventory returned to the {@link GuiManager#getInventoryPool()}, {@link #getInventory()} throws
+	 * from then on
+	 */
+	public boolean isInventoryReleased() {
+		return inventoryReleased;
 	}
 	
 	/**
-	 * Opens this GUI for a player
+	 * Opens this GUI for a player, if the {@link GuiManager#getRenderQueue()} is enabled the player sees the {@link #placeholderItem} until the
+	 * components have been added
 	 */
 	public void open() {
-		profile.getOwner().closeInventory();
+		if(inventoryReleased){
+			throw new IllegalStateException("Unable to open a destroyed menu whose inventory was returned to the pool, create a new menu instead!");
+		}
+		Player owner = getPlayer();
+		if(owner == null){
+			throw new IllegalStateException("Unable to open a menu without an owner!");
+		}
+		owner.closeInventory();
 		try{
 			GuiManager instance = GuiManager.instance();
 		} catch(Exception e){
 			throw new IllegalStateException("Unable to open menu gui manager is not initialized!", e);
 		}
-		addComponents();
-		GuiManager.addMenu(getPlayer().getUniqueId(), this);
-		profile.getOwner().openInventory(inventory);
+		MenuOpenEvent event = new MenuOpenEvent();
+		event.begin();
+		if(GuiManager.getRenderQueue().isEnabled()){
+			renderPlaceholder();
+			GuiManager.addMenu(owner.getUniqueId(), this);
+			startTicking();
+			metrics.recordOpen();
+			owner.openInventory(inventory);
+			GuiManager.getRenderQueue().submit(this, this::build);
+			commitOpenEvent(event, true);
+			return;
+		}
+		build();
+		flush();
+		GuiManager.addMenu(owner.getUniqueId(), this);
+		startTicking();
+		metrics.recordOpen();
+		owner.openInventory(inventory);
+		commitOpenEvent(event, false);
+	}
+	
+	/**
+	 * Commits a flight recorder open event if recording is enabled
+	 *
+	 * @param event The started event
+	 * @param queued Whether the build was handed to the render queue
+	 */
+	void commitOpenEvent(MenuOpenEvent event, boolean queued) {
+		event.end();
+		if(event.shouldCommit()){
+			event.menuClass = getClass();
+			event.queued = queued;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Adds a component that changes over time, the component runs once every period while this GUI is open. All components of all menus share a
+	 * single timing wheel instead of a scheduler task each, components are started when the GUI opens and stopped when it is destroyed.
+	 *
+	 * @param periodTicks The amount of ticks between two runs
+	 * @param component The component
+	 */
+	public void addTicking(int periodTicks, TickingComponent component) {
+		if(periodTicks <= 0){
+			throw new IllegalArgumentException("The period must be positive!");
+		}
+		removeTicking(component);
+		tickingComponents.put(component, periodTicks);
+		if(ticking && !isDestroyed){
+			tickingTasks.put(component, GuiManager.getTickWheel().schedule(this, periodTicks, component));
+		}
+	}
+	
+	/**
+	 * Cycles through icons in a slot, showing the next icon every period
+	 *
+	 * @param slot The slot to animate
+	 * @param periodTicks The amount of ticks each icon is shown for
+	 * @param frames The icons to cycle through, the first icon is shown right away
+	 * @return The component animating the slot, can be passed to {@link #removeTicking(TickingComponent)}
+	 */
+	public TickingComponent addAnimation(int slot, int periodTicks, Icon... frames) {
+		if(frames.length == 0){
+			throw new IllegalArgumentException("An animation needs at least one frame!");
+		}
+		Icon[] copy = frames.clone();
+		addIcon(copy[0], slot);
+		TickingComponent component = new TickingComponent(){
+			private int frame = 0;
+			
+			@Override
+			public void tick(GuiInventory<?> gui, long tick) {
+				frame = (frame + 1) % copy.length;
+				gui.addIcon(copy[frame], slot);
+			}
+		};
+		addTicking(periodTicks, component);
+		return component;
+	}
+	
+	/**
+	 * Stops and removes a ticking component
+	 *
+	 * @param component The component to remove
+	 */
+	public void removeTicking(TickingComponent component) {
+		tickingComponents.remove(component);
+		TickWheel.Task task = tickingTasks.remove(component);
+		if(task != null){
+			task.cancel();
+		}
+	}
+	
+	/**
+	 * @return The amount of entries held by all pagination panels of this GUI
+	 */
+	public int getPaginatedEntryCount() {
+		int count = 0;
+		for(PaginationGui paginationGui : paginationGuis){
+			count += paginationGui.getEntryCount();
+		}
+		return count;
+	}
+	
+	/**
+	 * Starts all ticking components, called once the GUI is opened
+	 */
+	void startTicking() {
+		if(ticking || isDestroyed){
+			return;
+		}
+		ticking = true;
+		for(Map.Entry<TickingComponent, Integer> entry : tickingComponents.entrySet()){
+			tickingTasks.put(entry.getKey(), GuiManager.getTickWheel().schedule(this, entry.getValue(), entry.getKey()));
+		}
+	}
+	
+	private void stopTicking() {
+		for(TickWheel.Task task : tickingTasks.values()){
+			task.cancel();
+		}
+		tickingTasks.clear();
+		tickingComponents.clear();
+	}
+	
+	/**
+	 * Adds the components of this GUI as a single render
+	 */
+	protected void build() {
+		beginRender();
+		try{
+			addComponents();
+		} finally{
+			endRender();
+		}
+	}
+	
+	/**
+	 * Shows the {@link #placeholderItem} in every slot with a single write, every slot is marked dirty so the placeholder gets replaced by the next
+	 * flush
+	 */
+	private void renderPlaceholder() {
+		if(placeholderItem == null){
+			return;
+		}
+		Arrays.fill(renderedItems, placeholderItem);
+		inventory.setContents(renderedItems.clone());
+		dirtySlots = allSlots();
+	}
+	
+	/**
+	 * @return Bitmask with a bit set for every slot of the inventory
+	 */
+	private long allSlots() {
+		return slotItems.length == Long.SIZE ? -1L : (1L << slotItems.length) - 1;
 	}
 	
 	/**
@@ -527,13 +1041,15 @@ public abstract class GuiInventory<T extends MenuProfile>{
 		}
 		
 		isDestroyed = true;
+		MenuDestroyEvent event = new MenuDestroyEvent();
+		event.begin();
 		
 		if(onDestroy != null){
 			onDestroy.run();
 		}
 		
 		if(returnItems && lastViewer != null){
-			for(int slot : openSlots){
+			for(int slot = openSlots.first(); slot >= 0; slot = openSlots.next(slot + 1)){
 				ItemStack item = inventory.getItem(slot);
 				if(item != null){
 					lastViewer.getInventory().addItem(item).values().forEach(remainingItem -> lastViewer.getWorld()
@@ -543,10 +1059,29 @@ public abstract class GuiInventory<T extends MenuProfile>{
 			}
 		}
 		
+		for(PaginationGui paginationGui : paginationGuis){
+			paginationGui.destroy();
+		}
+		stopTicking();
+		if(clickLimiter != null){
+			clickLimiter.menuDestroyed(this);
+		}
+		
 		inventory.clear();
 		buttons.clear();
+		resetSlots();
 		if(removeFromManager){
-			GuiManager.cleanup(getPlayer().getUniqueId());
+			GuiManager.cleanup(this);
+		}
+		if(pooledTitle != null && GuiManager.getInventoryPool().isEnabled()){
+			inventoryReleased = true;
+			GuiManager.getInventoryPool().release(inventory, pooledTitle);
+		}
+		event.end();
+		if(event.shouldCommit()){
+			event.menuClass = getClass();
+			event.returnedItems = returnItems && lastViewer != null;
+			event.commit();
 		}
 	}
 	/**
@@ -569,16 +1104,33 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	 * Clears the inventory and its buttons
 	 */
 	public void clear() {
-		inventory.clear();
+		if(!inventoryReleased){
+			inventory.clear();
+		}
 		buttons.clear();
+		resetSlots();
 	}
 	
 	public void onDrag(InventoryDragEvent e, List<Integer> slots) {
+		long mask = 0;
+		for(int slot : slots){
+			mask |= 1L << slot;
+		}
+		onDrag(e, mask);
+	}
+	
+	/**
+	 * Handles a drag event in this GUI
+	 *
+	 * @param e The drag event
+	 * @param slots Bitmask of the slots in this GUI's inventory affected by the drag (bit n set means slot n was dragged over)
+	 */
+	public void onDrag(InventoryDragEvent e, long slots) {
 		if(disableDragEvent){
 			e.setCancelled(true);
 			return;
 		}
-		if(slots.isEmpty()){
+		if(slots == 0){
 			return;
 		}
 		if(!openSlots.containsAll(slots)){
@@ -620,7 +1172,40 @@ public abstract class GuiInventory<T extends MenuProfile>{
 		return null;
 	}
 	
-	public void onClick(InventoryClickEvent e) { //NOSONAR
+	public void onClick(InventoryClickEvent e) {
+		onClick(e, true);
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, runs a click held back by the {@link ClickLimiter} through the click pipeline of this GUI. The original event was
+	 * cancelled long ago, so the click runs with a new event on the view the player has open now, slot changes made by the handlers are applied to
+	 * that view. The event is not passed to the server's event listeners.
+	 *
+	 * @param player The player who clicked
+	 * @param slot The clicked slot of this GUI's inventory
+	 * @param click The type of click
+	 * @param action The action of the original click
+	 * @return Whether the click ran, false if the player no longer has this GUI open
+	 */
+	boolean replayClick(HumanEntity player, int slot, ClickType click, InventoryAction action) {
+		InventoryView view = player.getOpenInventory();
+		if(isDestroyed || !inventory.equals(view.getTopInventory())){
+			return false;
+		}
+		InventoryClickEvent e = new InventoryClickEvent(view, view.getSlotType(slot), slot, click, action);
+		long start = System.nanoTime();
+		onClick(e, false);
+		metrics.recordClick(System.nanoTime() - start);
+		return true;
+	}
+	
+	/**
+	 * Handles a click
+	 *
+	 * @param e The click event
+	 * @param limit Whether the click still has to pass the {@link #clickLimiter}, false for clicks it held back
+	 */
+	private void onClick(InventoryClickEvent e, boolean limit) { //NOSONAR
 		if(disableClickEvent){
 			e.setCancelled(true);
 			return;
@@ -629,9 +1214,15 @@ public abstract class GuiInventory<T extends MenuProfile>{
 			e.setCancelled(true);
 			return;
 		}
+		if(limit && clickLimiter != null && !clickLimiter.tryClick(this, e)){
+			return;
+		}
 		
 		if(onClick != null){
+			MenuClickEvent event = new MenuClickEvent();
+			event.begin();
 			onClick.accept(e);
+			commitClickEvent(event, e, MenuClickEvent.STAGE_LISTENER, -1, false);
 		}
 		
 		//if its a pagination button let the pagination gui handle it
@@ -643,37 +1234,55 @@ public abstract class GuiInventory<T extends MenuProfile>{
 				return;
 			}
 			
-			//the button that was clicked (this works as the pagination gui registers the buttons in this menu so it can get the button from the slot directly)
-			Button potentialButton = buttons.get(e.getRawSlot());
-			Object object = potentialButton != null ? potentialButton : getInventory().getItem(e.getRawSlot());
-			
-			int position = -1;
-			
-			if(object instanceof Button button){
-				position = paginationGui.getPosition(button);
-			} else if(object instanceof ItemStack itemStack){
-				position = paginationGui.getPosition(itemStack);
-			}
-			
-			if(position == -1){
-				position = paginationGui.getEntrySize();
-			}
-			
-			paginationGui.onInventoryEvent(e, object, position);
+			MenuClickEvent event = new MenuClickEvent();
+			event.begin();
+			paginationGui.handleClick(e);
+			commitClickEvent(event, e, MenuClickEvent.STAGE_PAGINATION, -1, true);
 			return;
 		}
 		
 		if(onPlayerInventoryClick != null){
+			MenuClickEvent event = new MenuClickEvent();
+			event.begin();
 			onPlayerInventoryClick.accept(e);
+			commitClickEvent(event, e, MenuClickEvent.STAGE_PLAYER_INVENTORY, -1, false);
 		}
 		
 		for(ClickActionData data : clickHandlers){
-			if(data.isValid.test(e, this) && data.action.test(e, this)){
+			MenuClickEvent event = new MenuClickEvent();
+			event.begin();
+			boolean handled = data.isValid.test(e, this) && data.action.test(e, this);
+			commitClickEvent(event, e, MenuClickEvent.STAGE_HANDLER, data.weight, handled);
+			if(handled){
 				return;
 			}
 		}
 	}
 	
+	/**
+	 * Commits a flight recorder click stage event if recording is enabled, the event is allocated by the caller but never escapes so it costs nothing
+	 * when no recording is running
+	 *
+	 * @param event The started event
+	 * @param e The click event
+	 * @param stage The stage that ran
+	 * @param handlerWeight The weight of the click handler or -1
+	 * @param handled Whether the stage handled the click
+	 */
+	private void commitClickEvent(MenuClickEvent event, InventoryClickEvent e, String stage, int handlerWeight, boolean handled) {
+		event.end();
+		if(event.shouldCommit()){
+			event.menuClass = getClass();
+			event.stage = stage;
+			event.handlerWeight = handlerWeight;
+			event.handled = handled;
+			event.slot = e.getSlot();
+			event.rawSlot = e.getRawSlot();
+			event.clickType = e.getClick().name();
+			event.commit();
+		}
+	}
+	
 	/**
 	 * DOES NOT NEED TO BE CALLED MANUALLY, automatically called on {@link PaginationGui} initialization
 	 */
@@ -692,17 +1301,17 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	/**
 	 * Handles all clicks in the GUI's inventory lowest prio as its just the average
 	 */
-	private final ClickActionData onDefaultInventoryClick = new ClickActionData(0,
+	private static final ClickActionData onDefaultInventoryClick = new ClickActionData(0,
 			(e, gui) -> gui.getInventory().equals(e.getClickedInventory()),
 			(e, gui) -> {
-				if(openSlots.contains(e.getSlot())){
+				if(gui.openSlots.contains(e.getSlot())){
 					List<Integer> list = new ArrayList<>();
 					list.add(e.getSlot());
-					onClickOpenSlot.accept(e, list);
+					gui.onClickOpenSlot.accept(e, list);
 					return true;
 				}
 				e.setCancelled(true);
-				Button button = buttons.get(e.getSlot());
+				Button button = gui.buttons.get(e.getSlot());
 				if(button != null){
 					button.onClick(e);
 				}
@@ -712,19 +1321,19 @@ public abstract class GuiInventory<T extends MenuProfile>{
 	/**
 	 * Handles all shift clicks in the GUI's inventory
 	 */
-	private final ClickActionData onDefaultShiftClick = new ClickActionData(1,
+	private static final ClickActionData onDefaultShiftClick = new ClickActionData(1,
 			(e, gui) -> !gui.getInventory().equals(e.getClickedInventory()) && e.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY,
 			(e, gui) -> {
-				if(!openSlots.isEmpty()){
+				if(!gui.openSlots.isEmpty()){
 					Map<Integer, ItemStack> slots = new HashMap<>();
 					int amount = Objects.requireNonNull(e.getCurrentItem()).getAmount();
-					for(int slot : openSlots){ //NOSONAR
+					for(int slot = gui.openSlots.first(); slot >= 0; slot = gui.openSlots.next(slot + 1)){ //NOSONAR
 						if(amount <= 0){
 							break;
 						}
-						ItemStack item = getInventory().getItem(slot);
+						ItemStack item = gui.getInventory().getItem(slot);
 						if(item == null){
-							int diff = Math.min(amount, e.getCurrentItem().getType().getMaxStackSize());
+							int diff = Math.min(amount, e.getCurrentItem().getMaxStackSize());
 							amount -= diff;
 							ItemStack clone = e.getCurrentItem().clone();
 							clone.setAmount(diff);
@@ -732,7 +1341,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 							continue;
 						}
 						if(e.getCurrentItem().isSimilar(item)){
-							int max = item.getType().getMaxStackSize() - item.getAmount();
+							int max = item.getMaxStackSize() - item.getAmount();
 							int diff = Math.min(max, e.getCurrentItem().getAmount());
 							amount -= diff;
 							ItemStack clone = item.clone();
@@ -743,7 +1352,7 @@ public abstract class GuiInventory<T extends MenuProfile>{
 					if(slots.isEmpty()){
 						return true;
 					}
-					onClickOpenSlot.accept(e, new ArrayList<>(slots.keySet()));
+					gui.onClickOpenSlot.accept(e, new ArrayList<>(slots.keySet()));
 					if(e.isCancelled()){
 						return true;
 					}
@@ -751,8 +1360,8 @@ public abstract class GuiInventory<T extends MenuProfile>{
 					ItemStack item = e.getCurrentItem();
 					item.setAmount(amount);
 					e.setCurrentItem(item);
-					slots.forEach(getInventory()::setItem);
-					Bukkit.getScheduler().scheduleSyncDelayedTask(gui.getPlugin(), this::update);
+					slots.forEach(gui::writeSlot);
+					gui.update();
 					return true;
 				}
 				e.setCancelled(true);
@@ -813,7 +1422,15 @@ public abstract class GuiInventory<T extends MenuProfile>{
 		paginationGuis.clear();
 	}
 	
-	public Player getPlayer() {return profile.getOwner();}
+	/**
+	 * Gets the player owning this menu, menus without a single owner (like a {@link SharedGuiInventory} viewed by many players) have no owner so
+	 * callers have to handle null
+	 *
+	 * @return The owning player or null if the menu has no owner
+	 */
+	public Player getPlayer() {
+		return profile != null ? profile.getOwner() : null;
+	}
 	
 }
 	
@@ -0,0 +1,288 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import static com.wonkglorg.utilitylib.inventory.GuiInventory.MAX_COLUMNS;
+import static com.wonkglorg.utilitylib.inventory.GuiInventory.MAX_ROWS;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A precompiled layout for a {@link GuiInventory}, described as a grid of characters with a legend mapping each character to an item, a button, open
+ * slots or a named region. The pattern is compiled once into an immutable slot plan which can be applied to any number of menus, so only the slots
+ * that differ per player still need to be added in {@link GuiInventory#addComponents()}.
+ * <pre>{@code
+ * private static final GuiLayout LAYOUT = GuiLayout.pattern(
+ * 		"#########",
+ * 		"#ppppppp#",
+ * 		"#ppppppp#",
+ * 		"###<x>###")
+ * 		.item('#', filler)
+ * 		.region('p')
+ * 		.region('<')
+ * 		.region('>')
+ * 		.button('x', gui -> Button.create(closeItem, e -> e.getWhoClicked().closeInventory()))
+ * 		.compile();
+ *
+ * public void addComponents() {
+ * 	applyLayout(LAYOUT);
+ * 	new PaginationGui(this).addSlots(LAYOUT.getSlots('p'));
+ * }
+ * }</pre>
+ * Spaces in the pattern leave their slot untouched.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class GuiLayout{
+	/**
+	 * The size of the inventory this layout is for
+	 */
+	private final int size;
+	/**
+	 * The item of every slot, only slots in {@link #itemMask} are set
+	 */
+	private final ItemStack[] items;
+	private final long itemMask;
+	/**
+	 * The button factory of every slot, only slots in {@link #buttonMask} are set. Slots sharing a character share one factory so they get the same
+	 * button instance
+	 */
+	private final Function<GuiInventory<?>, Button>[] buttons;
+	private final long buttonMask;
+	private final long openMask;
+	/**
+	 * The slots of every character in the pattern
+	 */
+	private final Map<Character, Long> regions;
+	
+	private GuiLayout(int size, ItemStack[] items, long itemMask, Function<GuiInventory<?>, Button>[] buttons, long buttonMask, long openMask,
+			Map<Character, Long> regions) {
+		this.size = size;
+		this.items = items;
+		this.itemMask = itemMask;
+		this.buttons = buttons;
+		this.buttonMask = buttonMask;
+		this.openMask = openMask;
+		this.regions = regions;
+	}
+	
+	/**
+	 * Starts a new layout from a pattern, every row of the pattern is a row of the inventory and every character a slot
+	 *
+	 * @param rows The rows of the pattern (1 to 6 rows of at most 9 characters, shorter rows are padded with spaces)
+	 * @return The builder to add the legend to
+	 */
+	public static Builder pattern(String... rows) {
+		return new Builder(rows);
+	}
+	
+	/**
+	 * @return The size of the inventory this layout is for
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Gets all slots marked with a character
+	 *
+	 * @param key The character in the pattern
+	 * @return A new slot set containing the slots of the character (empty if the character is not part of the pattern)
+	 */
+	public SlotSet getSlots(char key) {
+		return new SlotSet(regions.getOrDefault(key, 0L));
+	}
+	
+	/**
+	 * Gets the first slot marked with a character, useful for characters only used once
+	 *
+	 * @param key The character in the pattern
+	 * @return The first slot of the character or -1 if it is not part of the pattern
+	 */
+	public int getSlot(char key) {
+		long mask = regions.getOrDefault(key, 0L);
+		return mask == 0 ? -1 : Long.numberOfTrailingZeros(mask);
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, use {@link GuiInventory#applyLayout(GuiLayout)}. Writes this layout into a menu
+	 *
+	 * @param gui The menu to apply the layout to
+	 */
+	void apply(GuiInventory<?> gui) {
+		for(long remaining = itemMask; remaining != 0; remaining &= remaining - 1){
+			int slot = Long.numberOfTrailingZeros(remaining);
+			gui.addItem(items[slot], slot);
+		}
+		Map<Function<GuiInventory<?>, Button>, Button> created = new HashMap<>();
+		for(long remaining = buttonMask; remaining != 0; remaining &= remaining - 1){
+			int slot = Long.numberOfTrailingZeros(remaining);
+			gui.addButton(created.computeIfAbsent(buttons[slot], factory -> factory.apply(gui)), slot);
+		}
+		gui.openSlots.addAll(openMask);
+	}
+	
+	/**
+	 * Collects the legend of a layout and compiles it into a {@link GuiLayout}
+	 */
+	public static final class Builder{
+		private final String[] rows;
+		private final Map<Character, Object> legend = new HashMap<>();
+		private final List<Character> openKeys = new ArrayList<>();
+		
+		private Builder(String[] rows) {
+			if(rows.length == 0 || rows.length > MAX_COLUMNS){
+				throw new IllegalArgumentException("A layout needs between 1 and " + MAX_COLUMNS + " rows, got " + rows.length);
+			}
+			for(String row : rows){
+				if(row.length() > MAX_ROWS){
+					throw new IllegalArgumentException("Layout row '" + row + "' is longer than " + MAX_ROWS + " characters");
+				}
+			}
+			this.rows = rows.clone();
+		}
+		
+		/**
+		 * Displays an item in every slot marked with the character
+		 *
+		 * @param key The character in the pattern
+		 * @param item The item to display (null to clear the slots)
+		 * @return This builder
+		 */
+		public Builder item(char key, ItemStack item) {
+			return define(key, item == null ? Marker.EMPTY : item.clone());
+		}
+		
+		/**
+		 * Displays a shared icon in every slot marked with the character
+		 *
+		 * @param key The character in the pattern
+		 * @param icon The icon to display
+		 * @return This builder
+		 */
+		public Builder icon(char key, Icon icon) {
+			return define(key, icon.shared());
+		}
+		
+		/**
+		 * Adds the same button instance to every slot marked with the character in every menu the layout is applied to, the button should not keep
+		 * per menu state
+		 *
+		 * @param key The character in the pattern
+		 * @param button The button to add
+		 * @return This builder
+		 */
+		public Builder button(char key, Button button) {
+			return define(key, (Function<GuiInventory<?>, Button>) gui -> button);
+		}
+		
+		/**
+		 * Creates a button for every menu the layout is applied to, all slots marked with the character in the same menu share the created button
+		 *
+		 * @param key The character in the pattern
+		 * @param factory Creates the button for a menu
+		 * @return This builder
+		 */
+		public Builder button(char key, Function<GuiInventory<?>, Button> factory) {
+			return define(key, factory);
+		}
+		
+		/**
+		 * Opens every slot marked with the character so players can place items in them
+		 *
+		 * @param key The character in the pattern
+		 * @return This builder
+		 */
+		public Builder open(char key) {
+			if(!openKeys.contains(key)){
+				openKeys.add(key);
+			}
+			legend.putIfAbsent(key, Marker.REGION);
+			return this;
+		}
+		
+		/**
+		 * Marks the character as a region that is filled by code (pagination slots, per player items), the slots can be looked up with
+		 * {@link GuiLayout#getSlots(char)}
+		 *
+		 * @param key The character in the pattern
+		 * @return This builder
+		 */
+		public Builder region(char key) {
+			legend.putIfAbsent(key, Marker.REGION);
+			return this;
+		}
+		
+		private Builder define(char key, Object value) {
+			if(key == ' '){
+				throw new IllegalArgumentException("Spaces are reserved for untouched slots");
+			}
+			legend.put(key, value);
+			return this;
+		}
+		
+		/**
+		 * Compiles the layout, every character used in the pattern needs a legend entry
+		 *
+		 * @return The compiled layout
+		 */
+		@SuppressWarnings("unchecked")
+		public GuiLayout compile() {
+			int size = rows.length * MAX_ROWS;
+			ItemStack[] items = new ItemStack[size];
+			Function<GuiInventory<?>, Button>[] buttons = new Function[size];
+			long itemMask = 0;
+			long buttonMask = 0;
+			long openMask = 0;
+			Map<Character, Long> regions = new HashMap<>();
+			for(int y = 0; y < rows.length; y++){
+				String row = rows[y];
+				for(int x = 0; x < row.length(); x++){
+					char key = row.charAt(x);
+					if(key == ' '){
+						continue;
+					}
+					Object value = legend.get(key);
+					if(value == null){
+						throw new IllegalArgumentException("No legend entry for '" + key + "' used in layout row " + y);
+					}
+					int slot = y * MAX_ROWS + x;
+					long bit = 1L << slot;
+					regions.merge(key, bit, (a, b) -> a | b);
+					if(value instanceof ItemStack item){
+						items[slot] = item;
+						itemMask |= bit;
+					} else if(value == Marker.EMPTY){
+						itemMask |= bit;
+					} else if(value instanceof Function<?, ?> factory){
+						buttons[slot] = (Function<GuiInventory<?>, Button>) factory;
+						buttonMask |= bit;
+					}
+					if(openKeys.contains(key)){
+						openMask |= bit;
+					}
+				}
+			}
+			return new GuiLayout(size, items, itemMask, buttons, buttonMask, openMask, Map.copyOf(regions));
+		}
+	}
+	
+	/**
+	 * Legend values of characters without an item or button
+	 */
+	private enum Marker{
+		/**
+		 * Only names the slots, they are left untouched
+		 */
+		REGION,
+		/**
+		 * Clears the slots
+		 */
+		EMPTY
+	}
+}
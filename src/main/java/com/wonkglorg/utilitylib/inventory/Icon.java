@@ -0,0 +1,147 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable item that can be shown in any number of slots and menus at the same time without being cloned for every slot (backgrounds, fillers,
+ * static buttons). The item is copied once when the icon is created, changes are only possible through the {@code with} methods which return a new
+ * icon and leave this one untouched.
+ * <p>
+ * Icons are best kept in static fields and created once, writing the same icon to a slot again is free as the GUI only writes slots whose icon
+ * changed.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class Icon{
+	/**
+	 * The shared item, never modified and never handed out outside the library
+	 */
+	private final ItemStack item;
+	
+	private Icon(ItemStack item) {
+		this.item = item;
+	}
+	
+	/**
+	 * Creates an icon from an item, the item is copied so changes to it afterwards don't affect the icon
+	 *
+	 * @param item The item to create the icon from
+	 * @return The icon
+	 */
+	public static Icon of(ItemStack item) {
+		return new Icon(item.clone());
+	}
+	
+	/**
+	 * Creates an icon of a material
+	 *
+	 * @param material The material of the icon
+	 * @return The icon
+	 */
+	public static Icon of(Material material) {
+		return new Icon(new ItemStack(material));
+	}
+	
+	/**
+	 * Creates an icon of a material with a display name
+	 *
+	 * @param material The material of the icon
+	 * @param name The display name of the icon
+	 * @return The icon
+	 */
+	public static Icon of(Material material, Component name) {
+		return of(material).withName(name);
+	}
+	
+	/**
+	 * Creates a copy of this icon with changes applied to its item
+	 *
+	 * @param editor Changes the copied item
+	 * @return The changed icon
+	 */
+	public Icon edit(Consumer<ItemStack> editor) {
+		ItemStack copy = item.clone();
+		editor.accept(copy);
+		return new Icon(copy);
+	}
+	
+	/**
+	 * Creates a copy of this icon with changes applied to its item meta
+	 *
+	 * @param editor Changes the copied item meta
+	 * @return The changed icon
+	 */
+	public Icon withMeta(Consumer<ItemMeta> editor) {
+		return edit(copy -> {
+			ItemMeta meta = copy.getItemMeta();
+			if(meta != null){
+				editor.accept(meta);
+				copy.setItemMeta(meta);
+			}
+		});
+	}
+	
+	/**
+	 * @param name The display name
+	 * @return A copy of this icon with the display name
+	 */
+	public Icon withName(Component name) {
+		return withMeta(meta -> meta.displayName(name));
+	}
+	
+	/**
+	 * @param lore The lore
+	 * @return A copy of this icon with the lore
+	 */
+	public Icon withLore(List<Component> lore) {
+		return withMeta(meta -> meta.lore(lore));
+	}
+	
+	/**
+	 * @param amount The stack size
+	 * @return A copy of this icon with the stack size
+	 */
+	public Icon withAmount(int amount) {
+		return edit(copy -> copy.setAmount(amount));
+	}
+	
+	/**
+	 * @return The material of this icon
+	 */
+	public Material getType() {
+		return item.getType();
+	}
+	
+	/**
+	 * @return A modifiable copy of the item of this icon
+	 */
+	public ItemStack toItemStack() {
+		return item.clone();
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, the shared item of this icon which must never be modified
+	 *
+	 * @return The shared item
+	 */
+	ItemStack shared() {
+		return item;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof Icon icon && item.equals(icon.item);
+	}
+	
+	@Override
+	public int hashCode() {
+		return item.hashCode();
+	}
+}
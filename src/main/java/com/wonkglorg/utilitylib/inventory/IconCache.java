@@ -0,0 +1,120 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Remembers built icons by icon id, state and locale so buttons cycling through a few states (on/off, affordable/unaffordable) in a few languages
+ * only build their item meta once per combination. The least recently used icons are evicted once the cache is full.
+ * <p>
+ * Returning the same {@link Icon} instance for the same combination also means refreshing a button whose state did not change doesn't write its slot
+ * again. Not thread safe, only use it from the main thread.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class IconCache{
+	/**
+	 * The maximum amount of icons kept in this cache
+	 */
+	@Getter
+	private final int maxSize;
+	/**
+	 * The amount of lookups answered from the cache
+	 */
+	@Getter
+	private long hits = 0;
+	/**
+	 * The amount of lookups that had to build the icon
+	 */
+	@Getter
+	private long misses = 0;
+	
+	private final Map<Key, Icon> icons;
+	
+	/**
+	 * Creates a new icon cache
+	 *
+	 * @param maxSize The maximum amount of icons kept, the least recently used ones are evicted first
+	 */
+	public IconCache(int maxSize) {
+		if(maxSize <= 0){
+			throw new IllegalArgumentException("The cache size must be positive!");
+		}
+		this.maxSize = maxSize;
+		this.icons = new LinkedHashMap<>(16, 0.75f, true){
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Icon> eldest) {
+				return size() > IconCache.this.maxSize;
+			}
+		};
+	}
+	
+	/**
+	 * Gets the icon of a state, building it if it is not cached yet
+	 *
+	 * @param iconId The id of the icon (for example the name of the button)
+	 * @param state The state the icon is displayed for (any object with a sensible equals, may be null)
+	 * @param locale The locale the icon is displayed in (may be null)
+	 * @param factory Builds the icon if it is not cached
+	 * @param <S> The type of the state
+	 * @return The cached icon
+	 */
+	public <S> Icon get(String iconId, S state, Locale locale, BiFunction<S, Locale, Icon> factory) {
+		Key key = new Key(iconId, state, locale);
+		Icon icon = icons.get(key);
+		if(icon != null){
+			hits++;
+			return icon;
+		}
+		misses++;
+		icon = Objects.requireNonNull(factory.apply(state, locale), "Icon factory returned null for " + key);
+		icons.put(key, icon);
+		return icon;
+	}
+	
+	/**
+	 * Removes all states and locales of an icon, call this when whatever the icon is built from changed
+	 *
+	 * @param iconId The id of the icon
+	 */
+	public void invalidate(String iconId) {
+		icons.keySet().removeIf(key -> key.iconId().equals(iconId));
+	}
+	
+	/**
+	 * Removes a single state of an icon in all locales
+	 *
+	 * @param iconId The id of the icon
+	 * @param state The state to remove
+	 */
+	public void invalidate(String iconId, Object state) {
+		icons.keySet().removeIf(key -> key.iconId().equals(iconId) && Objects.equals(key.state(), state));
+	}
+	
+	/**
+	 * Removes all icons
+	 */
+	public void invalidateAll() {
+		icons.clear();
+	}
+	
+	/**
+	 * @return The amount of cached icons
+	 */
+	public int size() {
+		return icons.size();
+	}
+	
+	/**
+	 * @param iconId The id of the icon
+	 * @param state The state the icon is displayed for
+	 * @param locale The locale the icon is displayed in
+	 */
+	private record Key(String iconId, Object state, Locale locale){}
+}
@@ -5,6 +5,10 @@ import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 @SuppressWarnings("unused")
 public class InventoryItems{
 	
@@ -29,6 +33,11 @@ public class InventoryItems{
 	public static final ItemStack NEXT_PAGE = createItem(Material.ARROW,Component.text("Next Page"));
 	public static final ItemStack PREVIOUS_PAGE = createItem(Material.ARROW,Component.text("Previous Page"));
 	
+	public static final Icon NEXT_PAGE_ICON = Icon.of(NEXT_PAGE);
+	public static final Icon PREVIOUS_PAGE_ICON = Icon.of(PREVIOUS_PAGE);
+	
+	private static final Map<Material, Icon> fillerIcons = new EnumMap<>(Material.class);
+	
 	private InventoryItems() {
 		//Utility class
 	}
@@ -47,6 +56,17 @@ public class InventoryItems{
 		return filler;
 	}
 	
+	/**
+	 * Gets the shared filler icon of a material (removes tooltip), the icon is only created once per material and can be used in any amount of slots
+	 * and menus
+	 *
+	 * @param material The material of the filler
+	 * @return The filler icon
+	 */
+	public static Icon fillerIcon(Material material) {
+		return fillerIcons.computeIfAbsent(material, key -> Icon.of(createFiller(key)));
+	}
+	
 	/**
 	 * Utility Method to create an item with a name
 	 *
@@ -61,4 +81,22 @@ public class InventoryItems{
 		itemStack.setItemMeta(meta);
 		return itemStack;
 	}
+	
+	/**
+	 * Utility Method to create an item with a name and lore, use {@link com.wonkglorg.utilitylib.inventory.text.TextTemplate} and
+	 * {@link com.wonkglorg.utilitylib.inventory.text.LoreTemplate} to render them without parsing MiniMessage for every item
+	 *
+	 * @param material The material to create the ItemStack with
+	 * @param name then name of the item
+	 * @param lore The lore of the item
+	 * @return The ItemStack
+	 */
+	public static ItemStack createItem(Material material, Component name, List<Component> lore) {
+		ItemStack itemStack = new ItemStack(material);
+		ItemMeta meta = itemStack.getItemMeta();
+		meta.displayName(name);
+		meta.lore(lore);
+		itemStack.setItemMeta(meta);
+		return itemStack;
+	}
 }
@@ -1,17 +1,34 @@
 package com.wonkglorg.utilitylib.inventory;
 
-import static com.wonkglorg.utilitylib.inventory.GuiInventory.MAX_ROWS;
+import com.wonkglorg.utilitylib.inventory.jfr.PageRenderEvent;
+import com.wonkglorg.utilitylib.inventory.pagination.AsyncPageLoader;
+import com.wonkglorg.utilitylib.inventory.pagination.AsyncPageSource;
+import com.wonkglorg.utilitylib.inventory.pagination.PageClickHandler;
+import com.wonkglorg.utilitylib.inventory.pagination.PageDataSource;
+import com.wonkglorg.utilitylib.inventory.pagination.PageRenderer;
+import com.wonkglorg.utilitylib.inventory.pagination.SearchIndex;
+import com.wonkglorg.utilitylib.manager.GuiManager;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -37,8 +54,32 @@ public final class PaginationGui{
 	 */
 	private final ArrayList<PaginationEntry> entries = new ArrayList<>();
 	
+	/**
+	 * The adapter providing the entries when this panel is in adapter mode (null when the {@link #entries} list is used)
+	 */
+	private PageAdapter<?> adapter;
+	/**
+	 * Loads the pages when this panel is in async mode (null otherwise), also acts as the data source of the {@link #adapter}
+	 */
+	private AsyncPageLoader<?, ?> asyncLoader;
+	/**
+	 * The item displayed in every slot of this panel while a page is loaded in async mode
+	 */
+	@Setter
+	private ItemStack loadingItem;
+	
 	@Getter
-	private final Set<Integer> slots = new TreeSet<>();
+	private final SlotSet slots = new SlotSet();
+	
+	/**
+	 * The index of the entry rendered in each slot of the current page (-1 if the slot shows no entry), used to resolve clicks without searching the
+	 * entries
+	 */
+	private final int[] slotIndexes;
+	/**
+	 * The entry rendered in each slot of the current page, used to drop clicks on entries that moved or were removed since the page was rendered
+	 */
+	private final PaginationEntry[] slotEntries;
 	
 	@Setter
 	private Runnable onUpdate = () -> {
@@ -53,6 +94,15 @@ public final class PaginationGui{
 	@Setter
 	private ItemStack fillerItem;
 	
+	/**
+	 * Sets a shared icon as the filler item, the icon is written to every empty slot without being copied
+	 *
+	 * @param icon The filler icon (null to leave empty slots empty)
+	 */
+	public void setFillerIcon(Icon icon) {
+		this.fillerItem = icon == null ? null : icon.shared();
+	}
+	
 	/**
 	 * The previous button assigned to this panel (is not required only for convenience in #updatePageButtons)
 	 */
@@ -69,6 +119,21 @@ public final class PaginationGui{
 	private Consumer<ClickData> onClick = event -> {
 	};
 	
+	/**
+	 * Whether a page render is waiting in the {@link GuiManager#getRenderQueue()}
+	 */
+	private boolean pageRenderQueued = false;
+	
+	/**
+	 * The sorted and/or filtered order the entries are displayed in, only used while a sort or filter is set
+	 */
+	private final EntryView view = new EntryView();
+	
+	/**
+	 * Index over the search keys of all entries, null while search is not enabled
+	 */
+	private SearchIndex<PaginationEntry> searchIndex;
+	
 	/**
 	 * Constructs a PaginationPanel to work on a given InventoryGUI
 	 *
@@ -87,6 +152,9 @@ public final class PaginationGui{
 	public PaginationGui(GuiInventory<?> gui, ItemStack fillerItem) {
 		this.gui = gui;
 		this.fillerItem = fillerItem;
+		this.slotIndexes = new int[gui.getInventory().getSize()];
+		this.slotEntries = new PaginationEntry[gui.getInventory().getSize()];
+		Arrays.fill(slotIndexes, -1);
 		gui.addPaginationGui(this);
 	}
 	
@@ -96,7 +164,9 @@ public final class PaginationGui{
 	 * @param button The button to add
 	 */
 	public void addPagedButton(Button button) {
-		entries.add(new PaginationEntry(button));
+		PaginationEntry entry = new PaginationEntry(button);
+		entries.add(entry);
+		indexEntry(entry);
 	}
 	
 	/**
@@ -105,7 +175,9 @@ public final class PaginationGui{
 	 * @param item The item to add
 	 */
 	public void addPagedItem(ItemStack item) {
-		entries.add(new PaginationEntry(item));
+		PaginationEntry entry = new PaginationEntry(item);
+		entries.add(entry);
+		indexEntry(entry);
 	}
 	
 	/**
@@ -119,6 +191,16 @@ public final class PaginationGui{
 		}
 	}
 	
+	/**
+	 * Inserts multiple buttons into the paged panel at once, the entries after the index are shifted back and the page is only rendered once
+	 *
+	 * @param index The index to insert the first button at (may be past the current end, the gap is filled with empty entries)
+	 * @param buttons The buttons to insert
+	 */
+	public void addPagedButtons(int index, Collection<Button> buttons) {
+		insertEntries(index, buttons);
+	}
+	
 	/**
 	 * Adds multiple items to the paged panel
 	 *
@@ -130,14 +212,141 @@ public final class PaginationGui{
 		}
 	}
 	
+	/**
+	 * Inserts multiple items into the paged panel at once, the entries after the index are shifted back and the page is only rendered once
+	 *
+	 * @param index The index to insert the first item at (may be past the current end, the gap is filled with empty entries)
+	 * @param items The items to insert
+	 */
+	public void addPagedItems(int index, Collection<ItemStack> items) {
+		insertEntries(index, items);
+	}
+	
+	/**
+	 * Inserts multiple objects as entries in a single shift of the entry list
+	 *
+	 * @param index The index to insert the first object at
+	 * @param objects The objects to insert
+	 */
+	private void insertEntries(int index, Collection<?> objects) {
+		if(index < 0){
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+		if(objects.isEmpty()){
+			return;
+		}
+		if(index > entries.size()){
+			ensureCapacity(index - 1);
+		}
+		List<PaginationEntry> inserted = new ArrayList<>(objects.size());
+		for(Object object : objects){
+			PaginationEntry entry = new PaginationEntry(object);
+			inserted.add(entry);
+			indexEntry(entry);
+		}
+		entries.addAll(index, inserted);
+		view.entriesShifted(index);
+		updatePage();
+	}
+	
+	/**
+	 * Switches this panel to adapter mode, instead of holding a prebuilt item or button for every entry the entries are read from the data source and
+	 * only the entries of the displayed page are turned into items. While in adapter mode the paged items and buttons of this panel are ignored.
+	 *
+	 * @param source The data source providing the entries
+	 * @param renderer Builds the icon of an entry
+	 * @param clickHandler Handles clicks on any entry
+	 * @param <E> The type of the entries
+	 */
+	public <E> void setAdapter(PageDataSource<E> source, PageRenderer<E> renderer, PageClickHandler<E> clickHandler) {
+		cancelAsyncLoad();
+		this.asyncLoader = null;
+		this.adapter = new PageAdapter<>(source, renderer, clickHandler);
+		this.page = 1;
+		updatePage();
+	}
+	
+	/**
+	 * Switches this panel back from adapter mode to its paged items and buttons
+	 */
+	public void clearAdapter() {
+		cancelAsyncLoad();
+		this.asyncLoader = null;
+		this.adapter = null;
+		this.page = 1;
+		updatePage();
+	}
+	
+	/**
+	 * Switches this panel to async mode, pages are fetched one at a time from the source while the {@link #loadingItem} is displayed. Loaded pages
+	 * are only applied on the main thread while the menu is not destroyed, pages still loading when the menu is destroyed are cancelled.
+	 * <p>
+	 * Only the pages reached so far and the page following the last loaded page can be navigated to.
+	 *
+	 * @param source The source to fetch the pages from
+	 * @param renderer Builds the icon of an entry
+	 * @param clickHandler Handles clicks on any entry
+	 * @param loadingItem The item displayed in every slot of this panel while a page is loading
+	 * @param <E> The type of the entries
+	 * @param <C> The type of the cursor pointing to the start of a page
+	 */
+	public <E, C> void setAsyncSource(AsyncPageSource<E, C> source, PageRenderer<E> renderer, PageClickHandler<E> clickHandler, ItemStack loadingItem) {
+		cancelAsyncLoad();
+		AsyncPageLoader<E, C> loader = new AsyncPageLoader<>(source, gui, this::updatePage);
+		this.asyncLoader = loader;
+		this.loadingItem = loadingItem;
+		this.adapter = new PageAdapter<>(loader, renderer, clickHandler);
+		this.page = 1;
+		updatePage();
+	}
+	
+	/**
+	 * Loads the current page again in async mode (for example after the underlying data changed), does nothing in any other mode
+	 */
+	public void reloadPage() {
+		if(asyncLoader == null){
+			return;
+		}
+		asyncLoader.invalidate();
+		updatePage();
+	}
+	
+	/**
+	 * @return Whether this panel is in async mode (see {@link #setAsyncSource(AsyncPageSource, PageRenderer, PageClickHandler, ItemStack)})
+	 */
+	public boolean isAsyncMode() {
+		return asyncLoader != null;
+	}
+	
+	private void cancelAsyncLoad() {
+		if(asyncLoader != null){
+			asyncLoader.cancel();
+		}
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, called when the menu of this panel is destroyed
+	 */
+	void destroy() {
+		cancelAsyncLoad();
+	}
+	
+	/**
+	 * @return Whether this panel is in adapter mode (see {@link #setAdapter(PageDataSource, PageRenderer, PageClickHandler)})
+	 */
+	public boolean isAdapterMode() {
+		return adapter != null;
+	}
+	
 	/**
 	 * Removes an item from the paged panel.
 	 *
 	 * @param item The item to remove
 	 */
 	public void removePagedItem(ItemStack item) {
-		entries.removeIf(e -> e.object.equals(item));
-		updatePage();
+		if(removeEntriesIf(e -> item.equals(e.object)) > 0){
+			updatePage();
+		}
 	}
 	
 	/**
@@ -146,8 +355,9 @@ public final class PaginationGui{
 	 * @param button The button to remove
 	 */
 	public void removePagedButton(Button button) {
-		entries.removeIf(e -> e.object.equals(button));
-		updatePage();
+		if(removeEntriesIf(e -> e.object == button) > 0){
+			updatePage();
+		}
 	}
 	
 	/**
@@ -156,10 +366,11 @@ public final class PaginationGui{
 	 * @param items The items to remove
 	 */
 	public void removePagedItems(Iterable<ItemStack> items) {
+		Set<Object> remove = new HashSet<>();
 		for(ItemStack item : items){
-			entries.removeIf(e -> e.object.equals(item));
+			remove.add(item);
 		}
-		updatePage();
+		removeEntries(remove);
 	}
 	
 	/**
@@ -168,10 +379,127 @@ public final class PaginationGui{
 	 * @param buttons The buttons to remove
 	 */
 	public void removePagedButtons(Iterable<Button> buttons) {
+		Set<Object> remove = Collections.newSetFromMap(new IdentityHashMap<>());
 		for(Button button : buttons){
-			entries.removeIf(e -> e.object.equals(button));
+			remove.add(button);
 		}
-		updatePage();
+		removeEntries(remove);
+	}
+	
+	/**
+	 * Removes every item and button matching the filter from the paged panel in a single pass, for example to clear out expired listings
+	 *
+	 * @param filter The filter, receives the {@link ItemStack} or {@link Button} of each entry
+	 * @return The amount of entries removed
+	 */
+	public int removePagedIf(Predicate<Object> filter) {
+		int removed = removeEntriesIf(e -> e.object != null && filter.test(e.object));
+		if(removed > 0){
+			updatePage();
+		}
+		return removed;
+	}
+	
+	/**
+	 * Removes all entries whose object is contained in the given set in a single pass
+	 *
+	 * @param remove The objects to remove
+	 */
+	private void removeEntries(Set<Object> remove) {
+		if(remove.isEmpty()){
+			return;
+		}
+		if(removeEntriesIf(e -> e.object != null && remove.contains(e.object)) > 0){
+			updatePage();
+		}
+	}
+	
+	/**
+	 * Removes every entry matching the filter in a single pass, the removed entries are taken out of the search index and the positions after the
+	 * first removed entry are updated
+	 *
+	 * @param filter The filter, only receives entries that are not null
+	 * @return The amount of entries removed
+	 */
+	private int removeEntriesIf(Predicate<PaginationEntry> filter) {
+		int size = entries.size();
+		int firstRemoved = -1;
+		int write = 0;
+		for(int read = 0; read < size; read++){
+			PaginationEntry entry = entries.get(read);
+			if(entry != null && filter.test(entry)){
+				unindexEntry(entry);
+				view.forget(entry);
+				if(firstRemoved < 0){
+					firstRemoved = read;
+				}
+				continue;
+			}
+			if(write != read){
+				entries.set(write, entry);
+			}
+			write++;
+		}
+		if(firstRemoved < 0){
+			return 0;
+		}
+		entries.subList(write, size).clear();
+		view.entriesShifted(firstRemoved);
+		return size - write;
+	}
+	
+	/**
+	 * Replaces multiple items of the paged panel in a single pass, every entry equal to a key of the map is replaced with its value. The entries keep
+	 * their position
+	 *
+	 * @param replacements The items to replace mapped to their replacement
+	 * @return The amount of entries replaced
+	 */
+	public int replacePagedItems(Map<ItemStack, ItemStack> replacements) {
+		//copied so the lookup uses equals, sorted maps would compare the entries which may not even be item stacks
+		Map<Object, Object> lookup = new HashMap<>(replacements);
+		return replaceEntries(lookup);
+	}
+	
+	/**
+	 * Replaces multiple buttons of the paged panel in a single pass, buttons are matched by identity. The entries keep their position
+	 *
+	 * @param replacements The buttons to replace mapped to their replacement
+	 * @return The amount of entries replaced
+	 */
+	public int replacePagedButtons(Map<Button, Button> replacements) {
+		Map<Object, Object> lookup = new IdentityHashMap<>(replacements.size());
+		lookup.putAll(replacements);
+		return replaceEntries(lookup);
+	}
+	
+	/**
+	 * Replaces every entry whose object is a key of the map with the mapped object
+	 *
+	 * @param replacements The objects to replace mapped to their replacement
+	 * @return The amount of entries replaced
+	 */
+	private int replaceEntries(Map<?, ?> replacements) {
+		if(replacements.isEmpty()){
+			return 0;
+		}
+		int replaced = 0;
+		for(int i = 0; i < entries.size(); i++){
+			PaginationEntry entry = entries.get(i);
+			if(entry == null || entry.object == null){
+				continue;
+			}
+			Object replacement = replacements.get(entry.object);
+			if(replacement != null){
+				setEntry(i, new PaginationEntry(replacement));
+				replaced++;
+			}
+		}
+		if(replaced > 0){
+			view.invalidate();
+			updatePage();
+		}
+		return replaced;
 	}
 	
 	/**
@@ -180,7 +508,10 @@ public final class PaginationGui{
 	 * @param index The index of the item to remove
 	 */
 	public void removeByIndex(int index) {
-		entries.remove(index);
+		PaginationEntry entry = entries.remove(index);
+		unindexEntry(entry);
+		view.forget(entry);
+		view.entriesShifted(index);
 		updatePage();
 	}
 	
@@ -192,7 +523,8 @@ public final class PaginationGui{
 	 */
 	public void addAtPosition(int index, ItemStack item) {
 		ensureCapacity(index);
-		entries.set(index, new PaginationEntry(item));
+		setEntry(index, new PaginationEntry(item));
+		view.invalidate();
 	}
 	
 	/**
@@ -203,7 +535,15 @@ public final class PaginationGui{
 	 */
 	public void addAtPosition(int index, Button button) {
 		ensureCapacity(index);
-		entries.set(index, new PaginationEntry(button));
+		setEntry(index, new PaginationEntry(button));
+		view.invalidate();
+	}
+	
+	private void setEntry(int index, PaginationEntry entry) {
+		PaginationEntry previous = entries.set(index, entry);
+		unindexEntry(previous);
+		indexEntry(entry);
+		view.entryReplaced(index, previous, entry);
 	}
 	
 	/**
@@ -222,7 +562,148 @@ public final class PaginationGui{
 	 * @return The maximum page number of this panel with the current number of elements
 	 */
 	public int getMaxPage() {
-		return (Math.max(0, entries.size() - 1) / Math.max(1, slots.size())) + 1;
+		if(asyncLoader != null){
+			return asyncLoader.getKnownPages();
+		}
+		return (Math.max(0, getVisibleSize() - 1) / Math.max(1, slots.size())) + 1;
+	}
+	
+	/**
+	 * Sorts the displayed entries without touching the order they were added in. The sorted order is cached and only sorted again when entries are
+	 * removed, inserted or replaced, entries added to the end are merged into the cached order. Large panels are sorted in parallel so the comparator
+	 * should not depend on state that is modified while sorting.
+	 *
+	 * @param comparator The comparator, receives the {@link ItemStack} or {@link Button} of each entry (null to display the entries in the order they
+	 * were added)
+	 */
+	public void setSort(Comparator<Object> comparator) {
+		view.setComparator(comparator);
+		page = Math.min(page, getMaxPage());
+		updatePage();
+	}
+	
+	/**
+	 * Only displays the entries matching the filter, the entries not matching it are kept and displayed again once the filter is removed
+	 *
+	 * @param filter The filter, receives the {@link ItemStack} or {@link Button} of each entry (null to display all entries)
+	 */
+	public void setFilter(Predicate<Object> filter) {
+		view.setFilter(filter);
+		page = 1;
+		updatePage();
+	}
+	
+	/**
+	 * Removes the sort and filter of this panel
+	 */
+	public void clearView() {
+		view.setComparator(null);
+		view.setFilter(null);
+		page = Math.min(page, getMaxPage());
+		updatePage();
+	}
+	
+	/**
+	 * Marks the cached sort and filter order as outdated, call this when something the comparator or filter depends on changed (a price was updated,
+	 * an item got a new category) without the entries themselves being replaced
+	 */
+	public void invalidateView() {
+		view.invalidate();
+		updatePage();
+	}
+	
+	/**
+	 * Enables searching this panel with {@link #search(String)}, builds a search index over the key of every entry which is kept up to date as
+	 * entries are added, removed or replaced. Use {@link SearchIndex} through {@link #getSearchIndex()} to update the key of an entry that changed.
+	 *
+	 * @param keyFunction Gets the searchable text of an entry, receives the {@link ItemStack} or {@link Button} of each entry (for example the plain
+	 * text of the display name), null to disable search
+	 */
+	public void setSearchKey(Function<Object, String> keyFunction) {
+		view.setSearch(null);
+		if(keyFunction == null){
+			searchIndex = null;
+			updatePage();
+			return;
+		}
+		searchIndex = new SearchIndex<>(entry -> keyFunction.apply(entry.object));
+		for(PaginationEntry entry : entries){
+			indexEntry(entry);
+		}
+		updatePage();
+	}
+	
+	/**
+	 * Only displays the entries matching the query ordered by relevance, the sort of this panel is ignored while searching but the filter still
+	 * applies. Requires search to be enabled with {@link #setSearchKey(Function)}
+	 *
+	 * @param query The text to search for, null or blank to stop searching
+	 */
+	public void search(String query) {
+		if(searchIndex == null){
+			throw new IllegalStateException("Search is not enabled for this panel, use setSearchKey first!");
+		}
+		view.setSearch(query == null || query.isBlank() ? null : query);
+		page = 1;
+		updatePage();
+	}
+	
+	/**
+	 * Stops searching and displays all entries again
+	 */
+	public void clearSearch() {
+		view.setSearch(null);
+		page = Math.min(page, getMaxPage());
+		updatePage();
+	}
+	
+	/**
+	 * @return The current search query or null if this panel is not being searched
+	 */
+	public String getSearchQuery() {
+		return view.searchQuery;
+	}
+	
+	/**
+	 * @return The search index of this panel or null if search is not enabled
+	 */
+	public SearchIndex<?> getSearchIndex() {
+		return searchIndex;
+	}
+	
+	private void indexEntry(PaginationEntry entry) {
+		if(searchIndex != null && entry != null && entry.object != null){
+			searchIndex.add(entry);
+		}
+	}
+	
+	/**
+	 * Removes an entry from the search index
+	 *
+	 * @param entry The entry to remove
+	 */
+	private void unindexEntry(PaginationEntry entry) {
+		if(searchIndex != null && entry != null){
+			searchIndex.remove(entry);
+		}
+	}
+	
+	/**
+	 * @return Whether a sort or filter is set on this panel
+	 */
+	public boolean isViewActive() {
+		return view.isActive();
+	}
+	
+	/**
+	 * @return The amount of entries displayed across all pages (the entries passing the filter if one is set)
+	 */
+	public int getVisibleSize() {
+		if(adapter != null || !view.isActive()){
+			return getEntrySize();
+		}
+		view.refresh();
+		return view.size;
 	}
 	
 	/**
@@ -242,9 +723,7 @@ public final class PaginationGui{
 	 * @param end The end index of slots to add, inclusive  (0-indexed)
 	 */
 	public void addSlots(int start, int end) {
-		for(int i = start; i <= end; i++){
-			slots.add(i);
-		}
+		slots.addRange(start, end);
 		updatePage();
 	}
 	
@@ -257,11 +736,17 @@ public final class PaginationGui{
 	 * @param y2 The ending Y of slots to add, inclusive (0-indexed)
 	 */
 	public void addSlots(int x1, int y1, int x2, int y2) {
-		for(int x = x1; x <= x2; x++){
-			for(int y = y1; y <= y2; y++){
-				slots.add((y * MAX_ROWS) + x);
-			}
-		}
+		slots.addRect(x1, y1, x2, y2);
+		updatePage();
+	}
+	
+	/**
+	 * Adds multiple slots which will be used to display elements
+	 *
+	 * @param slots The slots to add (for example a region of a {@link GuiLayout})
+	 */
+	public void addSlots(SlotSet slots) {
+		this.slots.addAll(slots.getMask());
 		updatePage();
 	}
 	
@@ -271,10 +756,14 @@ public final class PaginationGui{
 	 * @param slot The slot to remove
 	 */
 	public void removeSlot(int slot) {
-		slots.forEach(gui::clearSlot);
-		slots.forEach(gui::clearSlot);
-		slots.remove(slot);
-		updatePage();
+		gui.beginRender();
+		try{
+			slots.forEachSlot(gui::clearSlot);
+			slots.remove(slot);
+			updatePage();
+		} finally{
+			gui.endRender();
+		}
 	}
 	
 	/**
@@ -284,11 +773,14 @@ public final class PaginationGui{
 	 * @param end The end index of slots to remove, inclusive (0-indexed)
 	 */
 	public void removeSlots(int start, int end) {
-		slots.forEach(gui::clearSlot);
-		for(int i = start; i <= end; i++){
-			slots.remove(i);
+		gui.beginRender();
+		try{
+			slots.forEachSlot(gui::clearSlot);
+			slots.removeRange(start, end);
+			updatePage();
+		} finally{
+			gui.endRender();
 		}
-		updatePage();
 	}
 	
 	/**
@@ -300,31 +792,76 @@ public final class PaginationGui{
 	 * @param y2 The ending Y of slots to remove, inclusive (0-indexed)
 	 */
 	public void removeSlots(int x1, int y1, int x2, int y2) {
-		slots.forEach(gui::clearSlot);
-		for(int x = x1; x <= x2; x++){
-			for(int y = y1; y <= y2; y++){
-				slots.remove((y * MAX_ROWS) + x);
-			}
+		gui.beginRender();
+		try{
+			slots.forEachSlot(gui::clearSlot);
+			slots.removeRect(x1, y1, x2, y2);
+			updatePage();
+		} finally{
+			gui.endRender();
 		}
-		updatePage();
 	}
 	
 	/**
-	 * Updates the elements displayed on the current page
+	 * Updates the elements displayed on the current page, every slot is only set once so only slots whose content actually changed get written to the
+	 * inventory. If the {@link GuiManager#getRenderQueue()} is enabled and this is not called while the menu is being built the render is queued
+	 * instead of run right away.
 	 */
 	public void updatePage() {
-		slots.forEach(gui::clearSlot);
-		slots.forEach(i -> gui.getInventory().setItem(i, fillerItem));
-		if(getPageSize() == 0 || entries.isEmpty()){
+		if(!gui.isRendering() && GuiManager.getRenderQueue().isEnabled()){
+			if(!pageRenderQueued){
+				pageRenderQueued = true;
+				GuiManager.getRenderQueue().submit(gui, () -> {
+					pageRenderQueued = false;
+					updatePageNow();
+				}, () -> pageRenderQueued = false);
+			}
+			return;
+		}
+		updatePageNow();
+	}
+	
+	private void updatePageNow() {
+		PageRenderEvent event = new PageRenderEvent();
+		event.begin();
+		gui.beginRender();
+		try{
+			renderPage();
+		} finally{
+			gui.endRender();
+		}
+		event.end();
+		if(event.shouldCommit()){
+			event.menuClass = gui.getClass();
+			event.page = page;
+			event.slots = slots.size();
+			event.entries = getEntryCount();
+			event.commit();
+		}
+	}
+	
+	private void renderPage() {
+		Arrays.fill(slotIndexes, -1);
+		Arrays.fill(slotEntries, null);
+		if(adapter != null){
+			renderAdapterPage();
+			return;
+		}
+		int visible = getVisibleSize();
+		if(getPageSize() == 0 || visible == 0){
+			slots.forEachSlot(slot -> gui.addItem(fillerItem, slot));
 			onUpdate.run();
 			return;
 		}
-		int start = (page - 1) * getPageSize();
-		int end = Math.min(entries.size(), page * getPageSize());
-		Iterator<Integer> iter = slots.iterator();
-		for(int i = start; i < end; i++){ //NOSONAR
-			PaginationEntry paginationEntry = entries.get(i);
-			int slot = iter.next();
+		int position = (page - 1) * getPageSize();
+		for(int slot = slots.first(); slot >= 0; slot = slots.next(slot + 1)){
+			if(position >= visible){
+				gui.addItem(fillerItem, slot);
+				continue;
+			}
+			int index = view.isActive() ? view.order[position] : position;
+			position++;
+			PaginationEntry paginationEntry = entries.get(index);
 			if(paginationEntry == null){
 				gui.addItem(fillerItem, slot);
 				continue;
@@ -333,6 +870,8 @@ public final class PaginationGui{
 				gui.addItem(null, slot);
 				continue;
 			}
+			slotIndexes[slot] = index;
+			slotEntries[slot] = paginationEntry;
 			
 			if(paginationEntry.isButton()){
 				gui.addButton((Button) paginationEntry.object(), slot);
@@ -344,6 +883,32 @@ public final class PaginationGui{
 		updatePageChangeButtons();
 	}
 	
+	private void renderAdapterPage() {
+		if(asyncLoader != null && !asyncLoader.isLoaded(page)){
+			if(getPageSize() > 0){
+				asyncLoader.load(page, getPageSize());
+			}
+			slots.forEachSlot(slot -> gui.addItem(loadingItem, slot));
+			onUpdate.run();
+			return;
+		}
+		int size = adapter.source().size();
+		int index = (page - 1) * getPageSize();
+		for(int slot = slots.first(); slot >= 0; slot = slots.next(slot + 1)){
+			if(index < size){
+				slotIndexes[slot] = index;
+				gui.addItem(adapter.render(index), slot);
+			} else {
+				gui.addItem(fillerItem, slot);
+			}
+			index++;
+		}
+		onUpdate.run();
+		if(size > 0){
+			updatePageChangeButtons();
+		}
+	}
+	
 	/**
 	 * Sets the page of this panel
 	 *
@@ -353,20 +918,34 @@ public final class PaginationGui{
 		if(page < 1 || page > getMaxPage()){
 			throw new IllegalArgumentException("Invalid page: " + page);
 		}
+		if(this.page != page){
+			gui.getMetrics().recordPageFlip();
+		}
 		this.page = page;
 		updatePage();
 	}
 	
+	/**
+	 * @return The amount of entries held by this panel (the loaded page in async mode)
+	 */
+	public int getEntryCount() {
+		return asyncLoader != null ? asyncLoader.getLoadedCount() : entries.size();
+	}
+	
 	/**
 	 * Removes all items and buttons from the panel
 	 */
 	public void clear() {
 		entries.clear();
+		if(searchIndex != null){
+			searchIndex.clear();
+		}
+		view.entriesShifted(0);
 		updatePage();
 	}
 	
 	/**
-	 * @return All ItemStacks added to this panel
+	 * @return All ItemStacks added to this panel as they were added, buttons are not included so no shared icon item is returned
 	 */
 	public List<ItemStack> getItems() {
 		//@formatter:off
@@ -396,13 +975,10 @@ public final class PaginationGui{
 	 * @return the position in the entries list of the item or -1 if not found
 	 */
 	public int getPosition(ItemStack item) {
-		for(PaginationEntry entry : entries){
-			if(entry == null){
-				continue;
-			}
-			
-			if(entry.object().equals(item)){
-				return entries.indexOf(entry);
+		for(int i = 0; i < entries.size(); i++){
+			PaginationEntry entry = entries.get(i);
+			if(entry != null && item.equals(entry.object())){
+				return i;
 			}
 		}
 		return -1;
@@ -413,12 +989,10 @@ public final class PaginationGui{
 	 * @return the position in the entries list of the button or -1 if not found
 	 */
 	public int getPosition(Button button) {
-		for(PaginationEntry entry : entries){
-			if(entry == null){
-				continue;
-			}
-			if(entry.object().equals(button)){
-				return entries.indexOf(entry);
+		for(int i = 0; i < entries.size(); i++){
+			PaginationEntry entry = entries.get(i);
+			if(entry != null && entry.object() == button){
+				return i;
 			}
 		}
 		return -1;
@@ -428,7 +1002,11 @@ public final class PaginationGui{
 	 * Navigates to the next page, if there is one
 	 */
 	public void nextPage() {
+		int previous = page;
 		page = Math.min(page + 1, getMaxPage());
+		if(page != previous){
+			gui.getMetrics().recordPageFlip();
+		}
 		updatePage();
 	}
 	
@@ -436,7 +1014,11 @@ public final class PaginationGui{
 	 * Navigates to the previous page, if there is one
 	 */
 	public void prevPage() {
+		int previous = page;
 		page = Math.max(1, page - 1);
+		if(page != previous){
+			gui.getMetrics().recordPageFlip();
+		}
 		updatePage();
 	}
 	
@@ -538,6 +1120,50 @@ public final class PaginationGui{
 		gui.update();
 	}
 	
+	/**
+	 * FOR INTERNAL USE ONLY, resolves the entry clicked in one of this panel's slots and fires the click
+	 *
+	 * @param event the event
+	 */
+	void handleClick(InventoryClickEvent event) {
+		int slot = event.getRawSlot();
+		int index = slotIndexes[slot];
+		if(adapter != null){
+			//in async mode the slot may still show a page that is no longer loaded
+			if(index < 0 || index >= adapter.source().size() || asyncLoader != null && !asyncLoader.contains(index)){
+				event.setCancelled(true);
+				return;
+			}
+			Object entry = adapter.source().get(index);
+			if(onClick != null){
+				onClick.accept(new ClickData(event, this, entry, index));
+			}
+			adapter.click(event, index);
+			event.setCancelled(true);
+			return;
+		}
+		
+		if(index >= 0){
+			PaginationEntry entry = slotEntries[slot];
+			if(index >= entries.size() || entries.get(index) != entry){
+				//the entries changed since the page was rendered, the player clicked something that is no longer there so the click is dropped
+				event.setCancelled(true);
+				return;
+			}
+			onInventoryEvent(event, entry.object(), index);
+			return;
+		}
+		
+		//the slot does not show an entry (filler or empty slot), the slot item may be the shared item of an icon so the click handler gets a copy
+		Button potentialButton = gui.getButton(slot);
+		Object object = potentialButton;
+		if(potentialButton == null){
+			ItemStack item = gui.getSlotItem(slot);
+			object = item != null ? item.clone() : null;
+		}
+		onInventoryEvent(event, object, getEntrySize());
+	}
+	
 	/**
 	 * FOR INTERNAL USE ONLY
 	 *
@@ -602,6 +1228,8 @@ public final class PaginationGui{
 	private record PaginationEntry(Object object){
 		
 		/**
+		 * Only used to render the entry, for buttons this is the shared item of their icon which must never be modified or handed out
+		 *
 		 * @return the objects itemstack (either directly or in the form of a buttons itemstack)
 		 */
 		public ItemStack getItemStack() {
@@ -609,7 +1237,7 @@ public final class PaginationGui{
 				return item;
 			}
 			if(object instanceof Button button){
-				return button.getItem();
+				return button.sharedItem();
 			}
 			return null;
 		}
@@ -619,12 +1247,346 @@ public final class PaginationGui{
 		}
 	}
 	
+	/**
+	 * The data source, renderer and click handler of a panel in adapter mode
+	 *
+	 * @param source the data source providing the entries
+	 * @param renderer builds the icon of an entry
+	 * @param clickHandler handles clicks on any entry
+	 * @param <E> the type of the entries
+	 */
+	private record PageAdapter<E>(PageDataSource<E> source, PageRenderer<E> renderer, PageClickHandler<E> clickHandler){
+		
+		public ItemStack render(int index) {
+			return renderer.render(source.get(index), index);
+		}
+		
+		public void click(InventoryClickEvent event, int index) {
+			clickHandler.onClick(event, source.get(index), index);
+		}
+	}
+	
+	/**
+	 * A cached permutation of the entry indexes in the order they are displayed while a sort, filter or search is set. The base entries are never
+	 * copied or reordered, switching the sort only reorders this index.
+	 */
+	private final class EntryView{
+		/**
+		 * Panels with at least this many displayed entries are sorted in parallel
+		 */
+		private static final int PARALLEL_SORT_THRESHOLD = 8192;
+		/**
+		 * Runs of at most this many indexes are sorted with an insertion sort instead of being split further
+		 */
+		private static final int INSERTION_SORT_THRESHOLD = 16;
+		
+		private Comparator<Object> comparator;
+		private Predicate<Object> filter;
+		/**
+		 * The entry indexes in display order, only the first {@link #size} values are used
+		 */
+		private int[] order = new int[0];
+		/**
+		 * The buffer the merge sort copies runs into, at least as long as the sorted range
+		 */
+		private int[] scratch = new int[0];
+		private int size = 0;
+		/**
+		 * The amount of base entries covered by the index, entries added after that are merged in on the next refresh
+		 */
+		private int indexedEntries = 0;
+		/**
+		 * Whether the index has to be built again from scratch
+		 */
+		private boolean stale = true;
+		/**
+		 * Whether only the comparator changed since the last refresh, so the current index only needs to be sorted again
+		 */
+		private boolean unsorted = false;
+		/**
+		 * The current search query, while searching the index holds the search results in order of relevance
+		 */
+		private String searchQuery;
+		/**
+		 * The index of every entry in the entry list, used to turn search results back into entry indexes
+		 */
+		private final Map<PaginationEntry, Integer> positions = new IdentityHashMap<>();
+		/**
+		 * The amount of entries in {@link #positions}, entries added after that are added on the next search
+		 */
+		private int positionedEntries = 0;
+		
+		/**
+		 * Compares two entry indexes by their entries, equal entries keep their insertion order
+		 */
+		private int compareIndexes(int a, int b) {
+			int result = comparator.compare(entries.get(a).object, entries.get(b).object);
+			return result != 0 ? result : Integer.compare(a, b);
+		}
+		
+		private boolean isActive() {
+			return comparator != null || filter != null || searchQuery != null;
+		}
+		
+		private void setComparator(Comparator<Object> comparator) {
+			this.comparator = comparator;
+			unsorted = true;
+		}
+		
+		private void setFilter(Predicate<Object> filter) {
+			this.filter = filter;
+			stale = true;
+		}
+		
+		private void setSearch(String searchQuery) {
+			this.searchQuery = searchQuery;
+			stale = true;
+		}
+		
+		private void invalidate() {
+			stale = true;
+		}
+		
+		/**
+		 * Marks the index as outdated after entries were inserted or removed, the positions before the first changed entry stay valid and the ones
+		 * after it are overwritten in place on the next search
+		 *
+		 * @param from The index of the first inserted or removed entry
+		 */
+		private void entriesShifted(int from) {
+			stale = true;
+			positionedEntries = Math.min(positionedEntries, from);
+			if(from == 0 && entries.isEmpty()){
+				positions.clear();
+			}
+		}
+		
+		/**
+		 * Updates the position of a single replaced entry, the other entries keep their position
+		 */
+		private void entryReplaced(int index, PaginationEntry previous, PaginationEntry entry) {
+			stale = true;
+			forget(previous);
+			if(entry != null && index < positionedEntries){
+				positions.put(entry, index);
+			}
+		}
+		
+		/**
+		 * Drops the position of an entry that was removed from the panel
+		 */
+		private void forget(PaginationEntry entry) {
+			if(entry != null){
+				positions.remove(entry);
+			}
+		}
+		
+		/**
+		 * Brings the index up to date with the entries and criteria, doing as little work as possible
+		 */
+		private void refresh() {
+			if(searchQuery != null){
+				//new entries may match the query as well, the search is cheap enough to run again
+				if(stale || indexedEntries != entries.size()){
+					applySearch();
+				}
+				return;
+			}
+			if(stale || indexedEntries > entries.size()){
+				rebuild();
+				return;
+			}
+			if(unsorted && comparator == null){
+				//back to insertion order, the filtered indexes were collected in ascending order
+				Arrays.sort(order, 0, size);
+			}
+			if(indexedEntries < entries.size()){
+				appendNewEntries();
+			}
+			if(unsorted){
+				sort(0, size);
+				unsorted = false;
+			}
+		}
+		
+		private void rebuild() {
+			size = 0;
+			indexedEntries = 0;
+			unsorted = false;
+			appendNewEntries();
+			stale = false;
+		}
+		
+		/**
+		 * Adds the entries added since the last refresh to the index, the new entries are sorted on their own and merged into the already sorted index
+		 */
+		private void appendNewEntries() {
+			int start = size;
+			int total = entries.size();
+			if(order.length < size + total - indexedEntries){
+				order = Arrays.copyOf(order, Math.max(size + total - indexedEntries, order.length + (order.length >> 1)));
+			}
+			for(int i = indexedEntries; i < total; i++){
+				PaginationEntry entry = entries.get(i);
+				if(entry != null && entry.object != null && (filter == null || filter.test(entry.object))){
+					order[size++] = i;
+				}
+			}
+			indexedEntries = total;
+			if(comparator == null || unsorted || start == size){
+				return;
+			}
+			sort(start, size);
+			if(start > 0){
+				merge(start);
+			}
+		}
+		
+		/**
+		 * Fills the index with the entry indexes of the search results
+		 */
+		private void applySearch() {
+			List<PaginationEntry> results = searchIndex == null ? List.of() : searchIndex.search(searchQuery);
+			if(positionedEntries > entries.size()){
+				positions.clear();
+				positionedEntries = 0;
+			}
+			for(int i = positionedEntries; i < entries.size(); i++){
+				if(entries.get(i) != null){
+					positions.put(entries.get(i), i);
+				}
+			}
+			positionedEntries = entries.size();
+			if(order.length < results.size()){
+				order = new int[results.size()];
+			}
+			size = 0;
+			for(PaginationEntry entry : results){
+				Integer index = positions.get(entry);
+				if(index != null && (filter == null || filter.test(entry.object))){
+					order[size++] = index;
+				}
+			}
+			indexedEntries = entries.size();
+			stale = false;
+			unsorted = true;
+		}
+		
+		private void sort(int from, int to) {
+			if(comparator == null){
+				return;
+			}
+			if(scratch.length < to){
+				scratch = new int[order.length];
+			}
+			if(to - from >= PARALLEL_SORT_THRESHOLD){
+				ForkJoinPool.commonPool().invoke(new SortTask(from, to));
+			} else {
+				mergeSort(from, to);
+			}
+		}
+		
+		/**
+		 * Sorts a range of the index with a merge sort on the primitive indexes, so sorting never boxes an index
+		 *
+		 * @param from The start of the range (inclusive)
+		 * @param to The end of the range (exclusive)
+		 */
+		private void mergeSort(int from, int to) {
+			if(to - from <= INSERTION_SORT_THRESHOLD){
+				insertionSort(from, to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			mergeSort(from, mid);
+			mergeSort(mid, to);
+			mergeRuns(from, mid, to);
+		}
+		
+		private void insertionSort(int from, int to) {
+			for(int i = from + 1; i < to; i++){
+				int index = order[i];
+				int j = i - 1;
+				while(j >= from && compareIndexes(order[j], index) > 0){
+					order[j + 1] = order[j];
+					j--;
+				}
+				order[j + 1] = index;
+			}
+		}
+		
+		/**
+		 * Merges the sorted runs [from, mid) and [mid, to), only the first run is copied to {@link #scratch}
+		 */
+		private void mergeRuns(int from, int mid, int to) {
+			if(compareIndexes(order[mid - 1], order[mid]) <= 0){
+				//already in order, common when entries were added sorted
+				return;
+			}
+			System.arraycopy(order, from, scratch, from, mid - from);
+			int left = from;
+			int right = mid;
+			int target = from;
+			while(left < mid && right < to){
+				if(compareIndexes(order[right], scratch[left]) < 0){
+					order[target++] = order[right++];
+				} else {
+					order[target++] = scratch[left++];
+				}
+			}
+			System.arraycopy(scratch, left, order, target, mid - left);
+		}
+		
+		/**
+		 * Merges the sorted run starting at mid into the sorted run before it, working backwards from the end so only the new run has to be copied
+		 *
+		 * @param mid The start of the second run
+		 */
+		private void merge(int mid) {
+			int[] tail = Arrays.copyOfRange(order, mid, size);
+			int left = mid - 1;
+			int right = tail.length - 1;
+			int target = size - 1;
+			while(right >= 0){
+				if(left >= 0 && compareIndexes(order[left], tail[right]) > 0){
+					order[target--] = order[left--];
+				} else {
+					order[target--] = tail[right--];
+				}
+			}
+		}
+		
+		/**
+		 * Sorts the halves of a large range in parallel, the ranges of the tasks never overlap so they can share {@link #order} and {@link #scratch}
+		 */
+		private final class SortTask extends RecursiveAction{
+			private final int from;
+			private final int to;
+			
+			private SortTask(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+			
+			@Override
+			protected void compute() {
+				if(to - from < PARALLEL_SORT_THRESHOLD){
+					mergeSort(from, to);
+					return;
+				}
+				int mid = (from + to) >>> 1;
+				invokeAll(new SortTask(from, mid), new SortTask(mid, to));
+				mergeRuns(from, mid, to);
+			}
+		}
+	}
+	
 	/**
 	 * Represents the data of a click event
 	 *
 	 * @param event the click event
 	 * @param gui the pagination gui this event is for
-	 * @param object the clicked object reference (Button or ItemStack)
+	 * @param object the clicked object reference (Button or ItemStack), items of slots that show no entry (like the filler) are copies
 	 * @param index the index of the object in the entries list
 	 */
 	public record ClickData(InventoryClickEvent event, PaginationGui gui, Object object, int index){
@@ -645,8 +1607,11 @@ public final class PaginationGui{
 		return slots.size();
 	}
 	
+	/**
+	 * @return The amount of entries in this panel (the size of the data source in adapter mode)
+	 */
 	public int getEntrySize() {
-		return entries.size();
+		return adapter != null ? adapter.source().size() : entries.size();
 	}
 	
 	/**
@@ -0,0 +1,229 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import com.wonkglorg.utilitylib.inventory.jfr.MenuOpenEvent;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import lombok.Getter;
+import lombok.Setter;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A GUI that is built once and viewed by any number of players at the same time, all viewers share the same backing inventory, buttons and items.
+ * Useful for read-mostly menus (warps, server selectors, shop front pages) where building a separate menu for every player would be wasted work.
+ * <p>
+ * Shared menus have no single owner, {@link #getPlayer()} and {@link #getProfile()} return null, use {@link #getViewerProfile(HumanEntity)} or
+ * {@link #getViewerProfile(InventoryClickEvent)} to get the profile of the player interacting with the menu.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings({"unused", "unchecked"})
+public abstract class SharedGuiInventory<T extends MenuProfile> extends GuiInventory<T>{
+	
+	/**
+	 * Creates the profile of a player when they start viewing this menu
+	 */
+	private final Function<Player, T> profileFactory;
+	/**
+	 * The profiles of all players currently viewing this menu
+	 */
+	private final Map<UUID, T> viewers = new HashMap<>();
+	/**
+	 * Whether {@link #addComponents()} already ran for this menu
+	 */
+	private boolean built = false;
+	
+	/**
+	 * Whether this menu gets destroyed once its last viewer closes it, by default shared menus stay alive to be reopened by the next player
+	 */
+	@Getter
+	@Setter
+	private boolean destroyWhenEmpty = false;
+	
+	/**
+	 * Creates a new shared GUI from an inventory
+	 *
+	 * @param inventory The inventory to create a GUI from
+	 * @param profileFactory Creates the profile of a player when they start viewing this menu
+	 */
+	protected SharedGuiInventory(Inventory inventory, JavaPlugin plugin, Function<Player, T> profileFactory) {
+		super(inventory, plugin, (T) null);
+		this.profileFactory = profileFactory;
+		setReturnItems(false);
+	}
+	
+	/**
+	 * Creates a new shared GUI, instantiating a new inventory with the given size and name
+	 *
+	 * @param size The size of the inventory
+	 * @param name The name of the inventory
+	 * @param profileFactory Creates the profile of a player when they start viewing this menu
+	 */
+	protected SharedGuiInventory(int size, Component name, JavaPlugin plugin, Function<Player, T> profileFactory) {
+		this(Bukkit.createInventory(null, size, name), plugin, profileFactory);
+	}
+	
+	/**
+	 * Creates a new shared GUI, instantiating a new inventory with the given size and name
+	 *
+	 * @param inventorySize The size of the inventory
+	 * @param name The name of the inventory
+	 * @param profileFactory Creates the profile of a player when they start viewing this menu
+	 */
+	protected SharedGuiInventory(InventorySize inventorySize, Component name, JavaPlugin plugin, Function<Player, T> profileFactory) {
+		this(Bukkit.createInventory(null, inventorySize.getSize(), name), plugin, profileFactory);
+	}
+	
+	/**
+	 * Creates a new shared GUI from an inventory, viewers get a plain {@link MenuProfile}
+	 *
+	 * @param inventory The inventory to create a GUI from
+	 */
+	protected SharedGuiInventory(Inventory inventory, JavaPlugin plugin) {
+		this(inventory, plugin, player -> (T) new MenuProfile(player));
+	}
+	
+	/**
+	 * Creates a new shared GUI, instantiating a new inventory with the given size and name, viewers get a plain {@link MenuProfile}
+	 *
+	 * @param size The size of the inventory
+	 * @param name The name of the inventory
+	 */
+	protected SharedGuiInventory(int size, Component name, JavaPlugin plugin) {
+		this(Bukkit.createInventory(null, size, name), plugin);
+	}
+	
+	/**
+	 * Creates a new shared GUI, instantiating a new inventory with the given size and name, viewers get a plain {@link MenuProfile}
+	 *
+	 * @param inventorySize The size of the inventory
+	 * @param name The name of the inventory
+	 */
+	protected SharedGuiInventory(InventorySize inventorySize, Component name, JavaPlugin plugin) {
+		this(Bukkit.createInventory(null, inventorySize.getSize(), name), plugin);
+	}
+	
+	/**
+	 * Shared menus have no owner to open for, this only adds the components if they were not added yet so the next {@link #open(Player)} does not
+	 * have to. Use {@link #open(Player)} to show the menu to a player.
+	 */
+	@Override
+	public void open() {
+		if(isDestroyed()){
+			throw new IllegalStateException("Unable to open a shared menu that has been destroyed!");
+		}
+		if(!built){
+			rebuild();
+			flush();
+		}
+	}
+	
+	/**
+	 * Opens this GUI for a player, the components are only added the first time this menu is opened by anyone
+	 *
+	 * @param player The player to open the GUI for
+	 */
+	public void open(Player player) {
+		if(isDestroyed()){
+			throw new IllegalStateException("Unable to open a shared menu that has been destroyed!");
+		}
+		player.closeInventory();
+		try{
+			GuiManager instance = GuiManager.instance();
+		} catch(Exception e){
+			throw new IllegalStateException("Unable to open menu gui manager is not initialized!", e);
+		}
+		MenuOpenEvent event = new MenuOpenEvent();
+		event.begin();
+		if(!built){
+			rebuild();
+			flush();
+		}
+		viewers.computeIfAbsent(player.getUniqueId(), uuid -> profileFactory.apply(player));
+		GuiManager.addMenu(player.getUniqueId(), this);
+		startTicking();
+		getMetrics().recordOpen();
+		player.openInventory(getInventory());
+		commitOpenEvent(event, false);
+	}
+	
+	/**
+	 * Clears this menu and adds its components again, the changes are visible to all current viewers
+	 */
+	public void rebuild() {
+		clear();
+		build();
+		built = true;
+	}
+	
+	/**
+	 * Gets the profile of a player viewing this menu
+	 *
+	 * @param viewer The viewer to get the profile of
+	 * @return The profile of the viewer or null if they are not viewing this menu
+	 */
+	public T getViewerProfile(HumanEntity viewer) {
+		return viewers.get(viewer.getUniqueId());
+	}
+	
+	/**
+	 * Gets the profile of the player who caused a click event in this menu
+	 *
+	 * @param e The click event
+	 * @return The profile of the clicking player or null if they are not viewing this menu
+	 */
+	public T getViewerProfile(InventoryClickEvent e) {
+		return getViewerProfile(e.getWhoClicked());
+	}
+	
+	/**
+	 * @return The profiles of all players currently viewing this menu
+	 */
+	public Collection<T> getViewerProfiles() {
+		return Collections.unmodifiableCollection(viewers.values());
+	}
+	
+	/**
+	 * @return The uuids of all players currently viewing this menu
+	 */
+	public List<UUID> getViewerIds() {
+		return new ArrayList<>(viewers.keySet());
+	}
+	
+	/**
+	 * @return The amount of players currently viewing this menu
+	 */
+	public int getViewerCount() {
+		return viewers.size();
+	}
+	
+	/**
+	 * DOES NOT NEED TO BE CALLED MANUALLY, automatically called by the {@link GuiManager} when a viewer closes this menu or opens a different one
+	 *
+	 * @param uuid The uuid of the viewer to remove
+	 * @return The profile of the removed viewer or null if they were not viewing this menu
+	 */
+	public T removeViewer(UUID uuid) {
+		return viewers.remove(uuid);
+	}
+	
+	@Override
+	public void destroy(Player lastViewer, boolean removeFromManager) {
+		super.destroy(lastViewer, removeFromManager);
+		viewers.clear();
+	}
+}
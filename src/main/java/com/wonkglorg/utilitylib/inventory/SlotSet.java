@@ -0,0 +1,345 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import static com.wonkglorg.utilitylib.inventory.GuiInventory.MAX_ROWS;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of inventory slots (0-63) stored as a single bitmask, bit n is set if slot n is part of the set. Lookups, range and rectangle operations
+ * are single bitwise operations and never box the slot numbers.
+ * <p>
+ * Iterates in slot order. Still usable as a regular {@code Set<Integer>}, but the primitive methods ({@link #contains(int)}, {@link #first()} /
+ * {@link #next(int)}, {@link #forEachSlot(IntConsumer)}) should be preferred in code that runs on every click.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class SlotSet extends AbstractSet<Integer>{
+	/**
+	 * The largest slot a slot set can hold
+	 */
+	public static final int MAX_SLOT = 63;
+	
+	private long mask;
+	
+	/**
+	 * Creates a new empty slot set
+	 */
+	public SlotSet() {
+	}
+	
+	/**
+	 * Creates a slot set from a bitmask
+	 *
+	 * @param mask The bitmask (bit n set means slot n is part of the set)
+	 */
+	public SlotSet(long mask) {
+		this.mask = mask;
+	}
+	
+	/**
+	 * Creates a slot set containing the given slots
+	 *
+	 * @param slots The slots
+	 * @return The created slot set
+	 */
+	public static SlotSet of(int... slots) {
+		SlotSet set = new SlotSet();
+		for(int slot : slots){
+			set.add(slot);
+		}
+		return set;
+	}
+	
+	/**
+	 * Gets the bitmask of a range of slots
+	 *
+	 * @param start The first slot, inclusive (0-indexed)
+	 * @param end The last slot, inclusive (0-indexed)
+	 * @return The bitmask with all slots from start to end set (0 if end is before start)
+	 */
+	public static long rangeMask(int start, int end) {
+		checkSlot(start);
+		checkSlot(end);
+		if(end < start){
+			return 0;
+		}
+		long upTo = end == MAX_SLOT ? -1L : (1L << (end + 1)) - 1;
+		return upTo & (-1L << start);
+	}
+	
+	/**
+	 * Gets the bitmask of a rectangular area of slots
+	 *
+	 * @param x1 The starting X, inclusive (0-indexed)
+	 * @param y1 The starting Y, inclusive (0-indexed)
+	 * @param x2 The ending X, inclusive (0-indexed)
+	 * @param y2 The ending Y, inclusive (0-indexed)
+	 * @return The bitmask with all slots of the area set
+	 */
+	public static long rectMask(int x1, int y1, int x2, int y2) {
+		if(x2 < x1 || y2 < y1){
+			return 0;
+		}
+		if(x1 < 0 || x2 >= MAX_ROWS){
+			throw new IndexOutOfBoundsException("Invalid x range: " + x1 + " - " + x2);
+		}
+		long row = rangeMask(x1, x2);
+		long result = 0;
+		for(int y = y1; y <= y2; y++){
+			int offset = y * MAX_ROWS;
+			checkSlot(offset + x2);
+			result |= row << offset;
+		}
+		return result;
+	}
+	
+	private static void checkSlot(int slot) {
+		if(slot < 0 || slot > MAX_SLOT){
+			throw new IndexOutOfBoundsException("Invalid slot: " + slot);
+		}
+	}
+	
+	/**
+	 * @param slot The slot to check
+	 * @return Whether the slot is part of this set
+	 */
+	public boolean contains(int slot) {
+		return slot >= 0 && slot <= MAX_SLOT && (mask & (1L << slot)) != 0;
+	}
+	
+	/**
+	 * @param slots The bitmask of the slots to check
+	 * @return Whether all slots of the bitmask are part of this set
+	 */
+	public boolean containsAll(long slots) {
+		return (slots & ~mask) == 0;
+	}
+	
+	/**
+	 * @param slots The slots to check
+	 * @return Whether all slots are part of this set
+	 */
+	public boolean containsAll(SlotSet slots) {
+		return containsAll(slots.mask);
+	}
+	
+	/**
+	 * @param slots The bitmask of the slots to check
+	 * @return Whether any slot of the bitmask is part of this set
+	 */
+	public boolean containsAny(long slots) {
+		return (slots & mask) != 0;
+	}
+	
+	/**
+	 * Adds a slot to this set
+	 *
+	 * @param slot The slot to add
+	 * @return Whether the slot was not already part of this set
+	 */
+	public boolean add(int slot) {
+		checkSlot(slot);
+		long before = mask;
+		mask |= 1L << slot;
+		return before != mask;
+	}
+	
+	/**
+	 * Removes a slot from this set
+	 *
+	 * @param slot The slot to remove
+	 * @return Whether the slot was part of this set
+	 */
+	public boolean remove(int slot) {
+		if(!contains(slot)){
+			return false;
+		}
+		mask &= ~(1L << slot);
+		return true;
+	}
+	
+	/**
+	 * Adds a range of slots
+	 *
+	 * @param start The first slot, inclusive (0-indexed)
+	 * @param end The last slot, inclusive (0-indexed)
+	 */
+	public void addRange(int start, int end) {
+		mask |= rangeMask(start, end);
+	}
+	
+	/**
+	 * Removes a range of slots
+	 *
+	 * @param start The first slot, inclusive (0-indexed)
+	 * @param end The last slot, inclusive (0-indexed)
+	 */
+	public void removeRange(int start, int end) {
+		mask &= ~rangeMask(start, end);
+	}
+	
+	/**
+	 * Adds a rectangular area of slots
+	 *
+	 * @param x1 The starting X, inclusive (0-indexed)
+	 * @param y1 The starting Y, inclusive (0-indexed)
+	 * @param x2 The ending X, inclusive (0-indexed)
+	 * @param y2 The ending Y, inclusive (0-indexed)
+	 */
+	public void addRect(int x1, int y1, int x2, int y2) {
+		mask |= rectMask(x1, y1, x2, y2);
+	}
+	
+	/**
+	 * Removes a rectangular area of slots
+	 *
+	 * @param x1 The starting X, inclusive (0-indexed)
+	 * @param y1 The starting Y, inclusive (0-indexed)
+	 * @param x2 The ending X, inclusive (0-indexed)
+	 * @param y2 The ending Y, inclusive (0-indexed)
+	 */
+	public void removeRect(int x1, int y1, int x2, int y2) {
+		mask &= ~rectMask(x1, y1, x2, y2);
+	}
+	
+	/**
+	 * Adds all slots of a bitmask
+	 *
+	 * @param slots The bitmask of the slots to add
+	 */
+	public void addAll(long slots) {
+		mask |= slots;
+	}
+	
+	/**
+	 * Removes all slots of a bitmask
+	 *
+	 * @param slots The bitmask of the slots to remove
+	 */
+	public void removeAll(long slots) {
+		mask &= ~slots;
+	}
+	
+	/**
+	 * @return The first (lowest) slot of this set or -1 if it is empty
+	 */
+	public int first() {
+		return mask == 0 ? -1 : Long.numberOfTrailingZeros(mask);
+	}
+	
+	/**
+	 * Gets the next slot of this set, use together with {@link #first()} to iterate without allocating:
+	 * {@code for(int slot = set.first(); slot >= 0; slot = set.next(slot + 1))}
+	 *
+	 * @param from The slot to start searching from, inclusive
+	 * @return The first slot of this set that is at least from or -1 if there is none
+	 */
+	public int next(int from) {
+		if(from > MAX_SLOT){
+			return -1;
+		}
+		long remaining = mask & (-1L << Math.max(0, from));
+		return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+	}
+	
+	/**
+	 * Runs an action for every slot of this set in slot order
+	 *
+	 * @param action The action to run
+	 */
+	public void forEachSlot(IntConsumer action) {
+		for(long remaining = mask; remaining != 0; remaining &= remaining - 1){
+			action.accept(Long.numberOfTrailingZeros(remaining));
+		}
+	}
+	
+	/**
+	 * @return The bitmask of this set (bit n set means slot n is part of the set)
+	 */
+	public long getMask() {
+		return mask;
+	}
+	
+	@Override
+	public int size() {
+		return Long.bitCount(mask);
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return mask == 0;
+	}
+	
+	@Override
+	public void clear() {
+		mask = 0;
+	}
+	
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof Integer slot && contains((int) slot);
+	}
+	
+	@Override
+	public boolean add(Integer slot) {
+		return add((int) slot);
+	}
+	
+	@Override
+	public boolean remove(Object o) {
+		return o instanceof Integer slot && remove((int) slot);
+	}
+	
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		if(c instanceof SlotSet slots){
+			return containsAll(slots);
+		}
+		return super.containsAll(c);
+	}
+	
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<>(){
+			private long remaining = mask;
+			private int last = -1;
+			
+			@Override
+			public boolean hasNext() {
+				return remaining != 0;
+			}
+			
+			@Override
+			public Integer next() {
+				if(remaining == 0){
+					throw new NoSuchElementException();
+				}
+				last = Long.numberOfTrailingZeros(remaining);
+				remaining &= remaining - 1;
+				return last;
+			}
+			
+			@Override
+			public void remove() {
+				if(last < 0){
+					throw new IllegalStateException();
+				}
+				SlotSet.this.remove(last);
+				last = -1;
+			}
+		};
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if(o instanceof SlotSet slots){
+			return mask == slots.mask;
+		}
+		return super.equals(o);
+	}
+}
@@ -0,0 +1,24 @@
+package com.wonkglorg.utilitylib.inventory;
+
+/**
+ * A part of a menu that changes over time (countdowns, cycling icons, live stats), added with
+ * {@link GuiInventory#addTicking(int, TickingComponent)}. All ticking components of all menus are driven by a single timing wheel in the
+ * {@link com.wonkglorg.utilitylib.manager.GuiManager}, so no scheduler task is needed per menu.
+ * <p>
+ * Components should only change the slots they own through the usual methods ({@link GuiInventory#addItem(org.bukkit.inventory.ItemStack, int)},
+ * {@link GuiInventory#addIcon(Icon, int)}, {@link Button#setItem(org.bukkit.inventory.ItemStack)} followed by {@link GuiInventory#update()}), only
+ * slots whose item actually changed are written at the end of the tick.
+ *
+ * @author Wonkglorg
+ */
+@FunctionalInterface
+public interface TickingComponent{
+	
+	/**
+	 * Called on the main thread once every period while the menu is open
+	 *
+	 * @param gui The menu the component belongs to
+	 * @param tick The amount of ticks the timing wheel has run for, can be used to derive animation frames
+	 */
+	void tick(GuiInventory<?> gui, long tick);
+}
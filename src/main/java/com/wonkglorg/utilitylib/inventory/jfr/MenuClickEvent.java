@@ -0,0 +1,61 @@
+package com.wonkglorg.utilitylib.inventory.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering a single stage of {@link com.wonkglorg.utilitylib.inventory.GuiInventory#onClick}, every stage that runs for a
+ * click gets its own event so slow handlers can be told apart
+ *
+ * @author Wonkglorg
+ */
+@Name("utilitylib.gui.MenuClick")
+@Label("Menu Click Stage")
+@Category({"UtilityLib", "GUI"})
+@Description("A stage of a click being handled by a menu")
+@StackTrace(false)
+public final class MenuClickEvent extends Event{
+	/**
+	 * The global click listener of the menu
+	 */
+	public static final String STAGE_LISTENER = "listener";
+	/**
+	 * The click being handled by a pagination panel
+	 */
+	public static final String STAGE_PAGINATION = "pagination";
+	/**
+	 * The player inventory click listener of the menu
+	 */
+	public static final String STAGE_PLAYER_INVENTORY = "player-inventory";
+	/**
+	 * A registered click handler, see {@link #handlerWeight}
+	 */
+	public static final String STAGE_HANDLER = "handler";
+	
+	@Label("Menu Class")
+	public Class<?> menuClass;
+	
+	@Label("Stage")
+	public String stage;
+	
+	@Label("Handler Weight")
+	@Description("The weight of the click handler for the handler stage, -1 for other stages")
+	public int handlerWeight;
+	
+	@Label("Handled")
+	@Description("Whether the stage handled the click so no further stages ran")
+	public boolean handled;
+	
+	@Label("Slot")
+	public int slot;
+	
+	@Label("Raw Slot")
+	public int rawSlot;
+	
+	@Label("Click Type")
+	public String clickType;
+}
@@ -0,0 +1,27 @@
+package com.wonkglorg.utilitylib.inventory.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering {@link com.wonkglorg.utilitylib.inventory.GuiInventory#destroy()}
+ *
+ * @author Wonkglorg
+ */
+@Name("utilitylib.gui.MenuDestroy")
+@Label("Menu Destroy")
+@Category({"UtilityLib", "GUI"})
+@Description("A menu being destroyed")
+@StackTrace(false)
+public final class MenuDestroyEvent extends Event{
+	@Label("Menu Class")
+	public Class<?> menuClass;
+	
+	@Label("Returned Items")
+	@Description("Whether items in open slots were returned to the last viewer")
+	public boolean returnedItems;
+}
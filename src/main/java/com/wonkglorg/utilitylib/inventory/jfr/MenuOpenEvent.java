@@ -0,0 +1,28 @@
+package com.wonkglorg.utilitylib.inventory.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering {@link com.wonkglorg.utilitylib.inventory.GuiInventory#open()}, including building the menu unless the build was
+ * handed to the render queue
+ *
+ * @author Wonkglorg
+ */
+@Name("utilitylib.gui.MenuOpen")
+@Label("Menu Open")
+@Category({"UtilityLib", "GUI"})
+@Description("A menu being opened for a player")
+@StackTrace(false)
+public final class MenuOpenEvent extends Event{
+	@Label("Menu Class")
+	public Class<?> menuClass;
+	
+	@Label("Queued")
+	@Description("Whether the build was handed to the render queue instead of running right away")
+	public boolean queued;
+}
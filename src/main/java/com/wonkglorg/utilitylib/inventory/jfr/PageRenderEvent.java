@@ -0,0 +1,34 @@
+package com.wonkglorg.utilitylib.inventory.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering a page of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} being rendered
+ *
+ * @author Wonkglorg
+ */
+@Name("utilitylib.gui.PageRender")
+@Label("Page Render")
+@Category({"UtilityLib", "GUI"})
+@Description("A page of a pagination panel being rendered")
+@StackTrace(false)
+public final class PageRenderEvent extends Event{
+	@Label("Menu Class")
+	public Class<?> menuClass;
+	
+	@Label("Page")
+	public int page;
+	
+	@Label("Slots")
+	@Description("The amount of slots of the panel")
+	public int slots;
+	
+	@Label("Entries")
+	@Description("The amount of entries held by the panel")
+	public int entries;
+}
@@ -0,0 +1,211 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+
+/**
+ * Keeps track of the page currently loaded from an {@link AsyncPageSource} and the cursors of all pages reached so far. Results are always applied on
+ * the main thread and dropped if the menu was destroyed or a different page was requested in the meantime.
+ * <p>
+ * Acts as the {@link PageDataSource} of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} in async mode, only the entries of the loaded page
+ * are available.
+ *
+ * @param <E> The type of the entries
+ * @param <C> The type of the cursor pointing to the start of a page
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class AsyncPageLoader<E, C> implements PageDataSource<E>{
+	
+	private final AsyncPageSource<E, C> source;
+	/**
+	 * The menu the pages are loaded for
+	 */
+	private final GuiInventory<?> gui;
+	/**
+	 * Called on the main thread once a page has been loaded
+	 */
+	private final Runnable onLoaded;
+	/**
+	 * The cursor pointing to the start of every page reached so far (index 0 is page 1)
+	 */
+	private final List<C> cursors = new ArrayList<>();
+	/**
+	 * The entries of the loaded page
+	 */
+	private List<E> entries = List.of();
+	/**
+	 * The index of the first entry of the loaded page
+	 */
+	private int offset = 0;
+	/**
+	 * The loaded page (0 if no page is loaded)
+	 */
+	private int loadedPage = 0;
+	/**
+	 * The page currently being loaded (0 if no page is being loaded)
+	 */
+	private int loadingPage = 0;
+	private CompletableFuture<?> inFlight;
+	/**
+	 * Incremented on every request and cancellation so outdated results can be recognized
+	 */
+	private int generation = 0;
+	
+	/**
+	 * Creates a new page loader
+	 *
+	 * @param source The source to load the pages from
+	 * @param gui The menu the pages are loaded for
+	 * @param onLoaded Called on the main thread once a page has been loaded
+	 */
+	public AsyncPageLoader(AsyncPageSource<E, C> source, GuiInventory<?> gui, Runnable onLoaded) {
+		this.source = source;
+		this.gui = gui;
+		this.onLoaded = onLoaded;
+		cursors.add(null);
+	}
+	
+	/**
+	 * @param page The page to check
+	 * @return Whether the given page is loaded
+	 */
+	public boolean isLoaded(int page) {
+		return loadedPage == page;
+	}
+	
+	/**
+	 * @return The amount of entries of the loaded page
+	 */
+	public int getLoadedCount() {
+		return entries.size();
+	}
+	
+	/**
+	 * Checks whether an entry is part of the loaded page, indexes of other pages can't be read with {@link #get(int)} (for example the indexes of a
+	 * page still displayed while the next one was loaded)
+	 *
+	 * @param index The index of the entry
+	 * @return Whether the entry is loaded
+	 */
+	public boolean contains(int index) {
+		return loadedPage != 0 && index >= offset && index < offset + entries.size();
+	}
+	
+	/**
+	 * @return Whether a page is currently being loaded
+	 */
+	public boolean isLoading() {
+		return inFlight != null;
+	}
+	
+	/**
+	 * @return The amount of pages that can be navigated to (every page reached so far and the page following the last loaded page if there is one)
+	 */
+	public int getKnownPages() {
+		return cursors.size();
+	}
+	
+	/**
+	 * Starts loading a page, cancels any other page currently being loaded
+	 *
+	 * @param page The page to load (1-indexed, has to be smaller or equal to {@link #getKnownPages()})
+	 * @param limit The amount of entries on a page
+	 */
+	public void load(int page, int limit) {
+		if(loadingPage == page && inFlight != null){
+			return;
+		}
+		if(page < 1 || page > cursors.size()){
+			throw new IllegalArgumentException("Invalid page: " + page);
+		}
+		cancel();
+		int request = generation;
+		loadingPage = page;
+		CompletableFuture<AsyncPageSource.Page<E, C>> future = source.fetch(cursors.get(page - 1), limit);
+		inFlight = future;
+		//always apply in a scheduled task, even if the future is already completed, so a result is never applied in the middle of a render
+		future.whenComplete((result, error) -> {
+			if(gui.getPlugin().isEnabled()){
+				Bukkit.getScheduler().runTask(gui.getPlugin(), () -> apply(request, page, limit, result, error));
+			}
+		});
+	}
+	
+	/**
+	 * Cancels the page currently being loaded, its result will be dropped
+	 */
+	public void cancel() {
+		generation++;
+		loadingPage = 0;
+		if(inFlight != null){
+			inFlight.cancel(true);
+			inFlight = null;
+		}
+	}
+	
+	/**
+	 * Marks the loaded page as outdated so it is loaded again the next time it is displayed
+	 */
+	public void invalidate() {
+		cancel();
+		loadedPage = 0;
+	}
+	
+	/**
+	 * Forgets all pages and cursors, the next displayed page has to be page 1
+	 */
+	public void reset() {
+		invalidate();
+		cursors.clear();
+		cursors.add(null);
+		entries = List.of();
+		offset = 0;
+	}
+	
+	private void apply(int request, int page, int limit, AsyncPageSource.Page<E, C> result, Throwable error) {
+		if(request != generation || gui.isDestroyed()){
+			return;
+		}
+		inFlight = null;
+		loadingPage = 0;
+		boolean hasNext = false;
+		if(error != null){
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			if(cause instanceof CancellationException){
+				return;
+			}
+			gui.getPlugin().getLogger().log(Level.WARNING, "Failed to load page " + page + " of menu " + gui.getClass().getName(), cause);
+			entries = List.of();
+		} else {
+			entries = result.entries();
+			hasNext = result.hasNext();
+		}
+		while(cursors.size() > page){
+			cursors.remove(cursors.size() - 1);
+		}
+		if(hasNext){
+			cursors.add(result.nextCursor());
+		}
+		offset = (page - 1) * limit;
+		loadedPage = page;
+		onLoaded.run();
+	}
+	
+	@Override
+	public int size() {
+		return offset + entries.size();
+	}
+	
+	@Override
+	public E get(int index) {
+		return entries.get(index - offset);
+	}
+}
@@ -0,0 +1,62 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Loads the pages of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} asynchronously (for example from a database), pages are fetched one
+ * at a time using a cursor so the full result set never has to be loaded.
+ *
+ * @param <E> The type of the entries
+ * @param <C> The type of the cursor pointing to the start of a page
+ * @author Wonkglorg
+ */
+@FunctionalInterface
+public interface AsyncPageSource<E, C>{
+	
+	/**
+	 * Fetches a page of entries, this is called on the main thread and should not block, the returned future may be completed on any thread
+	 *
+	 * @param cursor The cursor pointing to the start of the page (null for the first page)
+	 * @param limit The maximum amount of entries to fetch
+	 * @return A future completing with the fetched page
+	 */
+	CompletableFuture<Page<E, C>> fetch(C cursor, int limit);
+	
+	/**
+	 * Creates a keyset based page source, every page continues after the key of the last entry of the previous page (for example
+	 * {@code WHERE id > ? ORDER BY id LIMIT ?})
+	 *
+	 * @param query Fetches at most limit entries with a key after the given key (null for the first page)
+	 * @param keyExtractor Gets the key of an entry
+	 * @param <E> The type of the entries
+	 * @param <K> The type of the keys
+	 * @return The page source
+	 */
+	static <E, K> AsyncPageSource<E, K> keyset(BiFunction<K, Integer, CompletableFuture<List<E>>> query, Function<E, K> keyExtractor) {
+		return (cursor, limit) -> query.apply(cursor, limit).thenApply(entries -> {
+			K next = entries.size() < limit || entries.isEmpty() ? null : keyExtractor.apply(entries.get(entries.size() - 1));
+			return new Page<>(entries, next);
+		});
+	}
+	
+	/**
+	 * A fetched page
+	 *
+	 * @param entries The entries of the page
+	 * @param nextCursor The cursor pointing to the start of the next page (null if this is the last page)
+	 * @param <E> The type of the entries
+	 * @param <C> The type of the cursor
+	 */
+	record Page<E, C>(List<E> entries, C nextCursor){
+		
+		/**
+		 * @return Whether there is a page after this one
+		 */
+		public boolean hasNext() {
+			return nextCursor != null;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+/**
+ * Handles clicks on the entries of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} in adapter mode, a single handler is used for all
+ * entries instead of a button per entry.
+ *
+ * @param <E> The type of the entries
+ * @author Wonkglorg
+ */
+@FunctionalInterface
+public interface PageClickHandler<E>{
+	
+	/**
+	 * Called when an entry is clicked
+	 *
+	 * @param event The click event
+	 * @param entry The clicked entry
+	 * @param index The index of the clicked entry in the data source
+	 */
+	void onClick(InventoryClickEvent event, E entry, int index);
+}
@@ -0,0 +1,47 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import java.util.List;
+
+/**
+ * Index based access to the entries of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} in adapter mode, only the entries of the currently
+ * displayed page are ever requested so the entries don't have to be turned into items or buttons up front.
+ *
+ * @param <E> The type of the entries
+ * @author Wonkglorg
+ */
+public interface PageDataSource<E>{
+	
+	/**
+	 * @return The total amount of entries
+	 */
+	int size();
+	
+	/**
+	 * Gets the entry at the given index
+	 *
+	 * @param index The index of the entry (0-indexed, smaller than {@link #size()})
+	 * @return The entry
+	 */
+	E get(int index);
+	
+	/**
+	 * Creates a data source backed by a list, changes to the list are reflected by the data source
+	 *
+	 * @param list The list to use
+	 * @param <E> The type of the entries
+	 * @return The data source
+	 */
+	static <E> PageDataSource<E> of(List<E> list) {
+		return new PageDataSource<>(){
+			@Override
+			public int size() {
+				return list.size();
+			}
+			
+			@Override
+			public E get(int index) {
+				return list.get(index);
+			}
+		};
+	}
+}
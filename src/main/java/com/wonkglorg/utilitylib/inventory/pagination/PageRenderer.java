@@ -0,0 +1,23 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Builds the icon of an entry of a {@link com.wonkglorg.utilitylib.inventory.PaginationGui} in adapter mode, only called for entries on the currently
+ * displayed page.
+ *
+ * @param <E> The type of the entries
+ * @author Wonkglorg
+ */
+@FunctionalInterface
+public interface PageRenderer<E>{
+	
+	/**
+	 * Builds the icon of an entry
+	 *
+	 * @param entry The entry to build the icon for
+	 * @param index The index of the entry in the data source
+	 * @return The icon of the entry
+	 */
+	ItemStack render(E entry, int index);
+}
@@ -0,0 +1,421 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A trigram index over a text key of objects (a display name, lore or any custom key), used to search large catalogs without scanning every entry on
+ * each keystroke. Objects are tracked by identity and can be added and removed at any time, the index is updated incrementally.
+ * <p>
+ * Queries are split into words, every query word has to be found in the key of a result. Query words shorter than 3 characters match the start of a
+ * word in the key, longer ones match anywhere. Results are ordered by relevance (whole word matches first, then word prefixes, then matches inside
+ * a word) and by the order they were added in.
+ *
+ * @param <T> The type of the indexed objects
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class SearchIndex<T>{
+	/**
+	 * Removed documents are only purged from the postings once they make up this many documents and at least half of the index
+	 */
+	private static final int COMPACT_THRESHOLD = 1024;
+	
+	private final Function<T, String> keyFunction;
+	/**
+	 * The sorted ids of all documents containing a trigram, keyed by the packed trigram
+	 */
+	private final PostingsTable postings = new PostingsTable();
+	/**
+	 * The id of every indexed object
+	 */
+	private final Map<T, Integer> ids = new IdentityHashMap<>();
+	/**
+	 * The indexed objects by id, removed objects leave a null until the index is compacted
+	 */
+	private Object[] documents = new Object[16];
+	/**
+	 * The normalized keys by id
+	 */
+	private String[] keys = new String[16];
+	private int nextId = 0;
+	private int removed = 0;
+	
+	/**
+	 * Creates a new empty search index
+	 *
+	 * @param keyFunction Extracts the searchable text of an object, may return null if the object should never be found
+	 */
+	public SearchIndex(Function<T, String> keyFunction) {
+		this.keyFunction = keyFunction;
+	}
+	
+	/**
+	 * Adds an object to the index, the key is read once when the object is added. Adding an object that is already indexed does nothing
+	 *
+	 * @param object The object to add
+	 */
+	public void add(T object) {
+		if(ids.containsKey(object)){
+			return;
+		}
+		if(nextId == documents.length){
+			documents = Arrays.copyOf(documents, nextId * 2);
+			keys = Arrays.copyOf(keys, nextId * 2);
+		}
+		int id = nextId++;
+		String key = normalize(keyFunction.apply(object));
+		ids.put(object, id);
+		documents[id] = object;
+		keys[id] = key;
+		indexKey(id, key);
+	}
+	
+	/**
+	 * Adds multiple objects to the index
+	 *
+	 * @param objects The objects to add
+	 */
+	public void addAll(Iterable<? extends T> objects) {
+		for(T object : objects){
+			add(object);
+		}
+	}
+	
+	/**
+	 * Removes an object from the index
+	 *
+	 * @param object The object to remove
+	 * @return Whether the object was indexed
+	 */
+	public boolean remove(T object) {
+		Integer id = ids.remove(object);
+		if(id == null){
+			return false;
+		}
+		documents[id] = null;
+		keys[id] = null;
+		removed++;
+		if(removed >= COMPACT_THRESHOLD && removed * 2 >= nextId){
+			compact();
+		}
+		return true;
+	}
+	
+	/**
+	 * Reads the key of an indexed object again, call this when the text the key is built from changed
+	 *
+	 * @param object The object to update
+	 */
+	public void update(T object) {
+		if(remove(object)){
+			add(object);
+		}
+	}
+	
+	/**
+	 * Removes all objects from the index
+	 */
+	public void clear() {
+		postings.clear();
+		ids.clear();
+		documents = new Object[16];
+		keys = new String[16];
+		nextId = 0;
+		removed = 0;
+	}
+	
+	/**
+	 * @return The amount of indexed objects
+	 */
+	public int size() {
+		return ids.size();
+	}
+	
+	/**
+	 * @param object The object to check
+	 * @return Whether the object is indexed
+	 */
+	public boolean contains(T object) {
+		return ids.containsKey(object);
+	}
+	
+	/**
+	 * Searches the index
+	 *
+	 * @param query The text to search for (case insensitive)
+	 * @return All objects matching the query ordered by relevance, empty if the query contains no letters or digits
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> search(String query) {
+		List<String> tokens = tokenize(normalize(query));
+		if(tokens.isEmpty()){
+			return new ArrayList<>();
+		}
+		List<Postings> lists = new ArrayList<>();
+		for(String token : tokens){
+			for(long gram : queryGrams(token)){
+				Postings list = postings.get(gram);
+				if(list == null){
+					return new ArrayList<>();
+				}
+				lists.add(list);
+			}
+		}
+		lists.sort((a, b) -> Integer.compare(a.size, b.size));
+		
+		//collect the matching ids into buckets by score, ids are visited in ascending order so every bucket stays in insertion order
+		int maxScore = tokens.size() * 3;
+		List<List<T>> buckets = new ArrayList<>(maxScore + 1);
+		for(int i = 0; i <= maxScore; i++){
+			buckets.add(null);
+		}
+		Postings smallest = lists.get(0);
+		candidates:
+		for(int i = 0; i < smallest.size; i++){
+			int id = smallest.ids[i];
+			if(keys[id] == null){
+				continue;
+			}
+			for(int l = 1; l < lists.size(); l++){
+				if(!lists.get(l).contains(id)){
+					continue candidates;
+				}
+			}
+			int score = 0;
+			for(String token : tokens){
+				int tokenScore = score(keys[id], token);
+				if(tokenScore == 0){
+					continue candidates;
+				}
+				score += tokenScore;
+			}
+			List<T> bucket = buckets.get(score);
+			if(bucket == null){
+				bucket = new ArrayList<>();
+				buckets.set(score, bucket);
+			}
+			bucket.add((T) documents[id]);
+		}
+		
+		List<T> results = new ArrayList<>();
+		for(int i = maxScore; i >= 0; i--){
+			if(buckets.get(i) != null){
+				results.addAll(buckets.get(i));
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Scores how well a query word matches a key
+	 *
+	 * @param key The normalized key
+	 * @param token The query word
+	 * @return 3 for a whole word match, 2 for a word prefix, 1 for a match inside a word (only for words of 3 or more characters), 0 if it doesn't
+	 * match
+	 */
+	private static int score(String key, String token) {
+		int best = 0;
+		int index = key.indexOf(token);
+		while(index >= 0 && best < 3){
+			boolean wordStart = index == 0 || !Character.isLetterOrDigit(key.charAt(index - 1));
+			int end = index + token.length();
+			boolean wordEnd = end == key.length() || !Character.isLetterOrDigit(key.charAt(end));
+			if(wordStart && wordEnd){
+				best = 3;
+			} else if(wordStart){
+				best = Math.max(best, 2);
+			} else if(token.length() >= 3){
+				best = Math.max(best, 1);
+			}
+			index = key.indexOf(token, index + 1);
+		}
+		return best;
+	}
+	
+	private void indexKey(int id, String key) {
+		if(key == null){
+			return;
+		}
+		for(String word : tokenize(key)){
+			String padded = "  " + word;
+			for(int i = 0; i + 3 <= padded.length(); i++){
+				postings.getOrCreate(pack(padded, i)).add(id);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the trigrams a document has to contain to match a query word, short words are matched against the padded word starts
+	 *
+	 * @param token The query word
+	 * @return The trigrams of the word
+	 */
+	private static long[] queryGrams(String token) {
+		String text = token.length() < 3 ? "  " + token : token;
+		long[] grams = new long[text.length() - 2];
+		for(int i = 0; i < grams.length; i++){
+			grams[i] = pack(text, i);
+		}
+		return grams;
+	}
+	
+	private static long pack(String text, int index) {
+		return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+	}
+	
+	private static String normalize(String text) {
+		return text == null ? null : text.toLowerCase(Locale.ROOT);
+	}
+	
+	/**
+	 * Splits a text into its words (runs of letters and digits)
+	 *
+	 * @param text The text to split
+	 * @return The words of the text
+	 */
+	private static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if(text == null){
+			return tokens;
+		}
+		int start = -1;
+		for(int i = 0; i <= text.length(); i++){
+			boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if(letter && start < 0){
+				start = i;
+			} else if(!letter && start >= 0){
+				tokens.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+	
+	/**
+	 * Purges removed documents by assigning new ids to all remaining documents and indexing them again
+	 */
+	@SuppressWarnings("unchecked")
+	private void compact() {
+		Object[] oldDocuments = documents;
+		String[] oldKeys = keys;
+		int oldCount = nextId;
+		postings.clear();
+		ids.clear();
+		documents = new Object[Math.max(16, oldCount - removed)];
+		keys = new String[documents.length];
+		nextId = 0;
+		removed = 0;
+		for(int i = 0; i < oldCount; i++){
+			if(oldDocuments[i] == null){
+				continue;
+			}
+			int id = nextId++;
+			ids.put((T) oldDocuments[i], id);
+			documents[id] = oldDocuments[i];
+			keys[id] = oldKeys[i];
+			indexKey(id, oldKeys[i]);
+		}
+	}
+	
+	/**
+	 * An open addressing hash table from packed trigrams to their postings, so looking up a trigram never boxes it. Postings are never removed on
+	 * their own, only the whole table is cleared
+	 */
+	private static final class PostingsTable{
+		private long[] grams = new long[64];
+		/**
+		 * The postings of each slot, null for empty slots
+		 */
+		private Postings[] values = new Postings[64];
+		private int size = 0;
+		
+		private Postings get(long gram) {
+			int mask = grams.length - 1;
+			for(int i = hash(gram) & mask; values[i] != null; i = (i + 1) & mask){
+				if(grams[i] == gram){
+					return values[i];
+				}
+			}
+			return null;
+		}
+		
+		private Postings getOrCreate(long gram) {
+			int mask = grams.length - 1;
+			int i = hash(gram) & mask;
+			for(; values[i] != null; i = (i + 1) & mask){
+				if(grams[i] == gram){
+					return values[i];
+				}
+			}
+			Postings created = new Postings();
+			grams[i] = gram;
+			values[i] = created;
+			if(++size * 4 >= grams.length * 3){
+				resize();
+			}
+			return created;
+		}
+		
+		private void resize() {
+			long[] oldGrams = grams;
+			Postings[] oldValues = values;
+			grams = new long[oldGrams.length * 2];
+			values = new Postings[oldValues.length * 2];
+			int mask = grams.length - 1;
+			for(int old = 0; old < oldValues.length; old++){
+				if(oldValues[old] == null){
+					continue;
+				}
+				int i = hash(oldGrams[old]) & mask;
+				while(values[i] != null){
+					i = (i + 1) & mask;
+				}
+				grams[i] = oldGrams[old];
+				values[i] = oldValues[old];
+			}
+		}
+		
+		private void clear() {
+			grams = new long[64];
+			values = new Postings[64];
+			size = 0;
+		}
+		
+		private static int hash(long gram) {
+			long hash = gram * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32));
+		}
+	}
+	
+	/**
+	 * A growable sorted list of document ids
+	 */
+	private static final class Postings{
+		private int[] ids = new int[4];
+		private int size = 0;
+		
+		/**
+		 * Adds an id, ids are always added in ascending order so adding the same id twice in a row is ignored
+		 */
+		private void add(int id) {
+			if(size > 0 && ids[size - 1] == id){
+				return;
+			}
+			if(size == ids.length){
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+		
+		private boolean contains(int id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+	}
+}
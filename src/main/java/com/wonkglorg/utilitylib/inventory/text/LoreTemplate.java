@@ -0,0 +1,107 @@
+package com.wonkglorg.utilitylib.inventory.text;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multiple lines of lore compiled into {@link TextTemplate}s sharing the same placeholders, the values are formatted once and filled into every line.
+ * Lines without placeholders are parsed once and reused as they are. The results of the most recently used values are cached.
+ * <pre>{@code
+ * private static final LoreTemplate SHOP_LORE = LoreTemplate.compile(List.of(
+ * 		"<gray>Price: <gold><price> coins",
+ * 		"<gray>Stock: <white><stock>",
+ * 		"",
+ * 		"<yellow>Click to buy"), PRICE, STOCK);
+ *
+ * List<Component> lore = SHOP_LORE.render(250, 12);
+ * }</pre>
+ * Not thread safe, only use it from the main thread.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class LoreTemplate{
+	private final TextTemplate[] lines;
+	private final int placeholderCount;
+	private final Map<List<Object>, List<Component>> cache;
+	
+	private LoreTemplate(TextTemplate[] lines, int placeholderCount, int cacheSize) {
+		this.lines = lines;
+		this.placeholderCount = placeholderCount;
+		this.cache = new TextTemplate.LruMap<>(cacheSize);
+	}
+	
+	/**
+	 * Parses MiniMessage lines into a lore template
+	 *
+	 * @param lines The MiniMessage lines, placeholders are written as {@code <name>}
+	 * @param placeholders The placeholders of the template, values are bound in this order
+	 * @return The compiled template
+	 */
+	public static LoreTemplate compile(List<String> lines, Placeholder<?>... placeholders) {
+		return compile(MiniMessage.miniMessage(), lines, TextTemplate.DEFAULT_CACHE_SIZE, placeholders);
+	}
+	
+	/**
+	 * Parses MiniMessage lines into a lore template
+	 *
+	 * @param parser The MiniMessage instance used to parse the lines
+	 * @param lines The MiniMessage lines, placeholders are written as {@code <name>}
+	 * @param cacheSize The amount of rendered values to remember (0 to disable caching)
+	 * @param placeholders The placeholders of the template, values are bound in this order
+	 * @return The compiled template
+	 */
+	public static LoreTemplate compile(MiniMessage parser, List<String> lines, int cacheSize, Placeholder<?>... placeholders) {
+		TextTemplate[] compiled = new TextTemplate[lines.size()];
+		for(int i = 0; i < compiled.length; i++){
+			//lines share the cache of the lore template, their own caches would only hold the same values again
+			compiled[i] = TextTemplate.compile(parser, lines.get(i), 0, placeholders);
+		}
+		return new LoreTemplate(compiled, placeholders.length, cacheSize);
+	}
+	
+	/**
+	 * Renders every line of this template with values for its placeholders
+	 *
+	 * @param values The values of the placeholders in the order they were declared in
+	 * @return The rendered lines (unmodifiable)
+	 * @throws IllegalArgumentException if the amount or types of the values don't match the placeholders
+	 */
+	public List<Component> render(Object... values) {
+		if(values.length != placeholderCount){
+			throw new IllegalArgumentException("Lore template expects " + placeholderCount + " values but got " + values.length);
+		}
+		List<Component> cached = cache.get(Arrays.asList(values));
+		if(cached != null){
+			return cached;
+		}
+		Component[] formatted = lines.length == 0 ? new Component[0] : lines[0].format(values);
+		List<Component> rendered = new ArrayList<>(lines.length);
+		for(TextTemplate line : lines){
+			rendered.add(line.build(formatted));
+		}
+		rendered = Collections.unmodifiableList(rendered);
+		cache.put(Arrays.asList(values.clone()), rendered);
+		return rendered;
+	}
+	
+	/**
+	 * @return The amount of lines of this template
+	 */
+	public int size() {
+		return lines.length;
+	}
+	
+	/**
+	 * Forgets all cached renders
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+}
@@ -0,0 +1,85 @@
+package com.wonkglorg.utilitylib.inventory.text;
+
+import net.kyori.adventure.text.Component;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * A typed hole in a {@link TextTemplate}, written as {@code <name>} in the MiniMessage template. The value bound to the placeholder is turned into a
+ * component by its formatter, the formatted value takes on the style of the template at the position of the placeholder.
+ *
+ * @param name The name of the placeholder as used in the template
+ * @param type The type of the values bound to this placeholder
+ * @param formatter Turns a bound value into a component
+ * @param <T> The type of the values bound to this placeholder
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public record Placeholder<T>(String name, Class<T> type, Function<T, Component> formatter){
+	
+	/**
+	 * Creates a placeholder for plain text values
+	 *
+	 * @param name The name of the placeholder
+	 * @return The placeholder
+	 */
+	public static Placeholder<String> string(String name) {
+		return new Placeholder<>(name, String.class, Component::text);
+	}
+	
+	/**
+	 * Creates a placeholder for component values
+	 *
+	 * @param name The name of the placeholder
+	 * @return The placeholder
+	 */
+	public static Placeholder<Component> component(String name) {
+		return new Placeholder<>(name, Component.class, Function.identity());
+	}
+	
+	/**
+	 * Creates a placeholder for numbers formatted with the number format of a locale (grouping separators, at most 2 decimals). The number format is
+	 * created once and is not thread safe, like templates the placeholder may only be rendered on the main thread
+	 *
+	 * @param name The name of the placeholder
+	 * @param locale The locale to format the numbers in
+	 * @return The placeholder
+	 */
+	public static Placeholder<Number> number(String name, Locale locale) {
+		NumberFormat format = NumberFormat.getNumberInstance(locale);
+		format.setMaximumFractionDigits(2);
+		return new Placeholder<>(name, Number.class, value -> Component.text(format.format(value)));
+	}
+	
+	/**
+	 * Creates a placeholder for any type of value
+	 *
+	 * @param name The name of the placeholder
+	 * @param type The type of the values
+	 * @param formatter Turns a value into a component
+	 * @param <T> The type of the values
+	 * @return The placeholder
+	 */
+	public static <T> Placeholder<T> of(String name, Class<T> type, Function<T, Component> formatter) {
+		return new Placeholder<>(name, type, formatter);
+	}
+	
+	/**
+	 * Formats a value bound to this placeholder
+	 *
+	 * @param value The value
+	 * @return The formatted value
+	 * @throws IllegalArgumentException if the value is not of the type of this placeholder
+	 */
+	Component format(Object value) {
+		if(value == null){
+			return Component.empty();
+		}
+		if(!type.isInstance(value)){
+			throw new IllegalArgumentException("Placeholder <" + name + "> expects a " + type.getSimpleName() + " but got " + value.getClass().getSimpleName());
+		}
+		return formatter.apply(type.cast(value));
+	}
+}
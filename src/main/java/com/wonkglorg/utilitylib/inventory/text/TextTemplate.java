@@ -0,0 +1,230 @@
+package com.wonkglorg.utilitylib.inventory.text;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A MiniMessage text parsed once into a component tree with typed placeholder holes, rendering it with values only fills in the holes instead of
+ * parsing the text again. The results of the most recently used values are cached, so rendering the same values again returns the same component.
+ * <pre>{@code
+ * private static final Placeholder<Number> PRICE = Placeholder.number("price", Locale.US);
+ * private static final TextTemplate PRICE_LINE = TextTemplate.compile("<gray>Price: <gold><price> coins", PRICE);
+ *
+ * Component line = PRICE_LINE.render(250);
+ * }</pre>
+ * Not thread safe, only use it from the main thread.
+ *
+ * @author Wonkglorg
+ */
+@SuppressWarnings("unused")
+public final class TextTemplate{
+	/**
+	 * The default amount of rendered values remembered by a template
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+	/**
+	 * Key prefix of the translatable components marking placeholder positions in the parsed tree
+	 */
+	private static final String MARKER_PREFIX = "utilitylib.template.placeholder.";
+	
+	private final String source;
+	private final Placeholder<?>[] placeholders;
+	private final Node root;
+	private final Map<List<Object>, Component> cache;
+	
+	private TextTemplate(String source, Placeholder<?>[] placeholders, Node root, int cacheSize) {
+		this.source = source;
+		this.placeholders = placeholders;
+		this.root = root;
+		this.cache = new LruMap<>(cacheSize);
+	}
+	
+	/**
+	 * Parses a MiniMessage text into a template
+	 *
+	 * @param miniMessage The MiniMessage text, placeholders are written as {@code <name>}
+	 * @param placeholders The placeholders of the template, values are bound in this order
+	 * @return The compiled template
+	 */
+	public static TextTemplate compile(String miniMessage, Placeholder<?>... placeholders) {
+		return compile(MiniMessage.miniMessage(), miniMessage, DEFAULT_CACHE_SIZE, placeholders);
+	}
+	
+	/**
+	 * Parses a MiniMessage text into a template
+	 *
+	 * @param parser The MiniMessage instance used to parse the text
+	 * @param miniMessage The MiniMessage text, placeholders are written as {@code <name>}
+	 * @param cacheSize The amount of rendered values to remember (0 to disable caching)
+	 * @param placeholders The placeholders of the template, values are bound in this order
+	 * @return The compiled template
+	 */
+	public static TextTemplate compile(MiniMessage parser, String miniMessage, int cacheSize, Placeholder<?>... placeholders) {
+		TagResolver.Builder resolver = TagResolver.builder();
+		for(int i = 0; i < placeholders.length; i++){
+			resolver.tag(placeholders[i].name(), Tag.selfClosingInserting(Component.translatable(MARKER_PREFIX + i)));
+		}
+		Component parsed = parser.deserialize(miniMessage, resolver.build());
+		return new TextTemplate(miniMessage, placeholders.clone(), Node.compile(parsed), cacheSize);
+	}
+	
+	/**
+	 * Renders this template with values for its placeholders
+	 *
+	 * @param values The values of the placeholders in the order they were declared in
+	 * @return The rendered component
+	 * @throws IllegalArgumentException if the amount or types of the values don't match the placeholders
+	 */
+	public Component render(Object... values) {
+		if(values.length != placeholders.length){
+			throw new IllegalArgumentException("Template '" + source + "' expects " + placeholders.length + " values but got " + values.length);
+		}
+		if(!root.dynamic){
+			return root.component;
+		}
+		List<Object> key = Arrays.asList(values);
+		Component cached = cache.get(key);
+		if(cached != null){
+			return cached;
+		}
+		Component rendered = root.build(format(values));
+		cache.put(Arrays.asList(values.clone()), rendered);
+		return rendered;
+	}
+	
+	/**
+	 * Formats values with the placeholders of this template
+	 *
+	 * @param values The values to format
+	 * @return The formatted values by placeholder index
+	 */
+	Component[] format(Object[] values) {
+		Component[] formatted = new Component[placeholders.length];
+		for(int i = 0; i < placeholders.length; i++){
+			formatted[i] = placeholders[i].format(values[i]);
+		}
+		return formatted;
+	}
+	
+	/**
+	 * Renders this template with already formatted values, used by {@link LoreTemplate} to format shared values once for all lines
+	 *
+	 * @param formatted The formatted values by placeholder index
+	 * @return The rendered component
+	 */
+	Component build(Component[] formatted) {
+		return root.build(formatted);
+	}
+	
+	/**
+	 * @return Whether this template contains any placeholders
+	 */
+	public boolean hasPlaceholders() {
+		return root.dynamic;
+	}
+	
+	/**
+	 * @return The placeholders of this template in the order values are bound
+	 */
+	public List<Placeholder<?>> getPlaceholders() {
+		return List.of(placeholders);
+	}
+	
+	/**
+	 * @return The MiniMessage text this template was compiled from
+	 */
+	public String getSource() {
+		return source;
+	}
+	
+	/**
+	 * Forgets all cached renders
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+	
+	/**
+	 * A node of the compiled component tree, subtrees without placeholders are kept as they are and reused by every render
+	 */
+	private static final class Node{
+		/**
+		 * The component of this node, without its children if any of them contain placeholders
+		 */
+		private final Component component;
+		/**
+		 * The placeholder this node stands for or -1 if it is not a placeholder
+		 */
+		private final int placeholder;
+		private final Node[] children;
+		/**
+		 * Whether this node or any of its children is a placeholder
+		 */
+		private final boolean dynamic;
+		
+		private Node(Component component, int placeholder, Node[] children, boolean dynamic) {
+			this.component = component;
+			this.placeholder = placeholder;
+			this.children = children;
+			this.dynamic = dynamic;
+		}
+		
+		private static Node compile(Component component) {
+			if(component instanceof TranslatableComponent translatable && translatable.key().startsWith(MARKER_PREFIX)){
+				int index = Integer.parseInt(translatable.key().substring(MARKER_PREFIX.length()));
+				return new Node(component, index, new Node[0], true);
+			}
+			List<Component> componentChildren = component.children();
+			Node[] children = new Node[componentChildren.size()];
+			boolean dynamic = false;
+			for(int i = 0; i < children.length; i++){
+				children[i] = compile(componentChildren.get(i));
+				dynamic |= children[i].dynamic;
+			}
+			if(!dynamic){
+				return new Node(component, -1, new Node[0], false);
+			}
+			return new Node(component.children(List.of()), -1, children, true);
+		}
+		
+		private Component build(Component[] formatted) {
+			if(!dynamic){
+				return component;
+			}
+			if(placeholder >= 0){
+				return formatted[placeholder].applyFallbackStyle(component.style());
+			}
+			List<Component> built = new ArrayList<>(children.length);
+			for(Node child : children){
+				built.add(child.build(formatted));
+			}
+			return component.children(built);
+		}
+	}
+	
+	/**
+	 * A map evicting the least recently used entry once it is full
+	 */
+	static final class LruMap<K, V> extends LinkedHashMap<K, V>{
+		private final int maxSize;
+		
+		LruMap(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > maxSize;
+		}
+	}
+}
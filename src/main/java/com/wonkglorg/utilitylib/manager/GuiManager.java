@@ -1,16 +1,24 @@
 package com.wonkglorg.utilitylib.manager;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
 import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import com.wonkglorg.utilitylib.inventory.IconCache;
+import com.wonkglorg.utilitylib.inventory.SharedGuiInventory;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,11 +31,42 @@ import java.util.UUID;
 public class GuiManager implements Listener{
 	private static GuiManager instance;
 	private static final Map<UUID, GuiInventory> menus = new HashMap<>();
+	/**
+	 * Index of every registered menu by its backing inventory, so inventory events can be routed to their menu with a single lookup (bukkit inventories hash and compare on their backing container)
+	 */
+	private static final Map<Inventory, GuiInventory> inventories = new HashMap<>();
+	/**
+	 * Menus with changes waiting to be flushed at the end of the current tick
+	 */
+	private static final List<GuiInventory> pendingRenders = new ArrayList<>();
+	/**
+	 * Spreads menu builds and page renders over multiple ticks when a tick budget is configured
+	 */
+	private static final RenderQueue renderQueue = new RenderQueue();
+	/**
+	 * Reuses the backing inventories of destroyed menus when pooling is enabled
+	 */
+	private static final InventoryPool inventoryPool = new InventoryPool();
+	/**
+	 * Default cache of built button icons by icon id, state and locale
+	 */
+	private static final IconCache iconCache = new IconCache(1024);
+	/**
+	 * Drives the ticking components of all menus
+	 */
+	private static final TickWheel tickWheel = new TickWheel();
+	/**
+	 * Metrics of every menu class
+	 */
+	private static final MenuMetrics metrics = new MenuMetrics();
 	
 	private GuiManager(JavaPlugin plugin) {
 		plugin.getServer().getPluginManager().registerEvents(this, plugin);
 	}
 	
+	private GuiManager() {
+	}
+	
 	/**
 	 * Creates a new instance of the GuiManager
 	 *
@@ -41,6 +80,19 @@ public class GuiManager implements Listener{
 		return instance;
 	}
 	
+	/**
+	 * Creates a new instance of the GuiManager without registering it as a listener, its event handlers have to be called by whoever drives the menus.
+	 * FOR INTERNAL USE ONLY, this is used to run menus without a server like in the benchmarks
+	 *
+	 * @return the created instance, or the existing instance if one was already created
+	 */
+	public static GuiManager createDetachedInstance() {
+		if(instance == null){
+			instance = new GuiManager();
+		}
+		return instance;
+	}
+	
 	/**
 	 * Gets the instance of the GuiManager use {@link GuiManager#createInstance(JavaPlugin)} before to initialize the instance
 	 *
@@ -55,35 +107,84 @@ public class GuiManager implements Listener{
 	
 	@EventHandler
 	public void onClick(InventoryClickEvent e) { //NOSONAR
-		if(menus.isEmpty()) return;
-		for(var menu : menus.values()){
-			if(menu.getInventory().equals(e.getView().getTopInventory())){
-				menu.onClick(e);
-				return;
-			}
+		GuiInventory menu = inventories.get(e.getView().getTopInventory());
+		if(menu != null){
+			long start = System.nanoTime();
+			menu.onClick(e);
+			menu.getMetrics().recordClick(System.nanoTime() - start);
 		}
 	}
 	
 	@EventHandler
 	public void onClose(InventoryCloseEvent e) {
-		if(menus.isEmpty()) return;
-		Iterator<GuiInventory> iterator = menus.values().iterator();
-		while(iterator.hasNext()){
-			GuiInventory next = iterator.next();
-			if(next.getInventory().equals(e.getView().getTopInventory()) && e.getViewers().size() <= 1){
-				next.destroy((Player) e.getPlayer(), false);
-				iterator.remove();
+		GuiInventory menu = inventories.get(e.getView().getTopInventory());
+		if(menu == null){
+			return;
+		}
+		if(menu instanceof SharedGuiInventory<?> shared){
+			menus.remove(e.getPlayer().getUniqueId(), shared);
+			shared.removeViewer(e.getPlayer().getUniqueId());
+			if(e.getViewers().size() <= 1 && shared.isDestroyWhenEmpty()){
+				inventories.remove(shared.getInventory());
+				shared.destroy((Player) e.getPlayer(), false);
 			}
+			return;
+		}
+		if(e.getViewers().size() > 1){
+			return;
+		}
+		//removed before destroying, a pooled inventory is released while the menu is destroyed
+		inventories.remove(menu.getInventory());
+		menu.destroy((Player) e.getPlayer(), false);
+		Player owner = menu.getPlayer();
+		if(owner != null){
+			menus.remove(owner.getUniqueId(), menu);
 		}
+		menus.remove(e.getPlayer().getUniqueId(), menu);
 	}
 	
 	@EventHandler
 	public void onDrag(InventoryDragEvent e) {
-		if(menus.isEmpty()) return;
-		for(var menu : menus.values()){
-			List<Integer> slots = e.getRawSlots().stream().filter(s -> menu.getInventory(e.getView(), s).equals(menu.getInventory())).toList();
-			menu.onDrag(e, slots);
+		GuiInventory menu = inventories.get(e.getView().getTopInventory());
+		if(menu == null){
+			return;
+		}
+		menu.onDrag(e, getTopSlotMask(e));
+	}
+	
+	@EventHandler
+	public void onTickStart(ServerTickStartEvent e) {
+		tickWheel.tick();
+		metrics.tick();
+		renderQueue.process(e.getTickNumber());
+	}
+	
+	@EventHandler
+	public void onTickEnd(ServerTickEndEvent e) {
+		if(pendingRenders.isEmpty()){
+			return;
 		}
+		for(int i = 0; i < pendingRenders.size(); i++){
+			pendingRenders.get(i).flush();
+		}
+		pendingRenders.clear();
+	}
+	
+	/**
+	 * Collects the raw slots of a drag event that lie in the top inventory into a bitmask (bit n set means raw slot n was dragged over)
+	 *
+	 * @param e The drag event
+	 * @return The slot mask of the top inventory slots affected by the drag
+	 */
+	private static long getTopSlotMask(InventoryDragEvent e) {
+		int topSize = e.getView().getTopInventory().getSize();
+		long mask = 0;
+		for(int rawSlot : e.getRawSlots()){
+			if(rawSlot < topSize){
+				mask |= 1L << rawSlot;
+			}
+		}
+		return mask;
 	}
 	
 	/**
@@ -120,6 +221,16 @@ public class GuiManager implements Listener{
 		return Optional.empty();
 	}
 	
+	/**
+	 * Gets the menu backed by the given inventory
+	 *
+	 * @param inventory The inventory to get the menu of (usually the top inventory of a view)
+	 * @return The menu backed by the inventory (empty if the inventory does not belong to a registered menu)
+	 */
+	public static <T> Optional<T> getMenu(Inventory inventory) {
+		return Optional.ofNullable((T) inventories.get(inventory));
+	}
+	
 	/**
 	 * Gets all menus of a given type
 	 *
@@ -128,11 +239,11 @@ public class GuiManager implements Listener{
 	 * @return All menus of the given type
 	 */
 	public static <T extends GuiInventory> List<T> getMenus(Class<T> clazz) {
-		return (List<T>) menus.values().stream().filter(clazz::isInstance).toList();
+		return (List<T>) inventories.values().stream().filter(clazz::isInstance).toList();
 	}
 	
 	/**
-	 * Cleans up all menus and destroys all menus for the uuid
+	 * Cleans up all menus and destroys all menus for the uuid (shared menus are only closed for the uuid and stay open for their other viewers)
 	 *
 	 * @param uuid The uuid to cleanup the menus for
 	 */
@@ -141,23 +252,128 @@ public class GuiManager implements Listener{
 		if(inventory == null){
 			return;
 		}
+		if(inventory instanceof SharedGuiInventory<?> shared){
+			MenuProfile profile = shared.removeViewer(uuid);
+			if(profile != null && profile.getOwner() != null){
+				profile.getOwner().closeInventory();
+			}
+			return;
+		}
+		if(!inventory.isInventoryReleased()){
+			inventories.remove(inventory.getInventory());
+		}
+		Player owner = inventory.getPlayer();
 		inventory.destroy();
-		inventory.getPlayer().closeInventory();
+		if(owner != null){
+			owner.closeInventory();
+		}
+	}
+	
+	/**
+	 * Cleans up the given menu, removing it from the manager and closing it for everyone viewing it
+	 *
+	 * @param menu The menu to cleanup
+	 */
+	public static void cleanup(GuiInventory menu) {
+		if(menu.isInventoryReleased() || !inventories.remove(menu.getInventory(), menu)){
+			return;
+		}
+		if(menu instanceof SharedGuiInventory<?> shared){
+			for(UUID uuid : shared.getViewerIds()){
+				menus.remove(uuid, shared);
+			}
+		} else if(menu.getPlayer() != null){
+			menus.remove(menu.getPlayer().getUniqueId(), menu);
+		}
+		List<HumanEntity> viewers = new ArrayList<>(menu.getInventory().getViewers());
+		menu.destroy();
+		for(HumanEntity viewer : viewers){
+			viewer.closeInventory();
+		}
 	}
 	
 	/**
 	 * Cleans up all menus and destroys all menus for all players
 	 */
 	public static void cleanup() {
-		Iterator<GuiInventory> iterator = menus.values().iterator();
-		while(iterator.hasNext()){
-			GuiInventory next = iterator.next();
-			next.destroy();
-			next.getPlayer().closeInventory();
-			iterator.remove();
+		List<GuiInventory> open = new ArrayList<>(inventories.values());
+		inventories.clear();
+		menus.clear();
+		for(GuiInventory menu : open){
+			List<HumanEntity> viewers = new ArrayList<>(menu.getInventory().getViewers());
+			menu.destroy();
+			for(HumanEntity viewer : viewers){
+				viewer.closeInventory();
+			}
 		}
 	}
 	
+	/**
+	 * Gets the render queue used to spread menu builds and page renders over multiple ticks, set a tick budget on it to enable it
+	 *
+	 * @return The render queue
+	 */
+	public static RenderQueue getRenderQueue() {
+		return renderQueue;
+	}
+	
+	/**
+	 * Gets the pool reusing the backing inventories of destroyed menus, set a limit on it to enable it
+	 *
+	 * @return The inventory pool
+	 */
+	public static InventoryPool getInventoryPool() {
+		return inventoryPool;
+	}
+	
+	/**
+	 * Gets the default cache used by {@link com.wonkglorg.utilitylib.inventory.Button#createCached} to remember built icons (holds up to 1024 icons)
+	 *
+	 * @return The icon cache
+	 */
+	public static IconCache getIconCache() {
+		return iconCache;
+	}
+	
+	/**
+	 * Gets the timing wheel driving the ticking components of all menus
+	 *
+	 * @return The tick wheel
+	 */
+	public static TickWheel getTickWheel() {
+		return tickWheel;
+	}
+	
+	/**
+	 * Gets the metrics of every menu class, add a {@link MetricsExporter} to it to export them
+	 *
+	 * @return The metrics
+	 */
+	public static MenuMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * @return A view of all menus currently registered
+	 */
+	static Collection<GuiInventory<?>> getRegisteredMenus() {
+		return (Collection) inventories.values();
+	}
+	
+	/**
+	 * DOES NOT NEED TO BE CALLED MANUALLY, use {@link GuiInventory#requestRender()}. Schedules a menu to be flushed at the end of the current tick
+	 *
+	 * @param menu The menu to flush
+	 * @return Whether the render was scheduled (false if the GuiManager is not initialized)
+	 */
+	public static boolean scheduleRender(GuiInventory menu) {
+		if(instance == null){
+			return false;
+		}
+		pendingRenders.add(menu);
+		return true;
+	}
+	
 	/**
 	 * Adds a menu to the uuid
 	 *
@@ -166,8 +382,14 @@ public class GuiManager implements Listener{
 	 */
 	public static <T extends GuiInventory> void addMenu(UUID uuid, T menu) {
 		GuiInventory inventory = menus.put(uuid, menu);
-		if(inventory != null){
-			inventory.destroy();
+		if(inventory instanceof SharedGuiInventory<?> shared && inventory != menu){
+			shared.removeViewer(uuid);
+		} else if(inventory != null && inventory != menu){
+			if(!inventory.isInventoryReleased()){
+				inventories.remove(inventory.getInventory());
+			}
+			inventory.destroy(inventory.getPlayer(), false);
 		}
+		inventories.put(menu.getInventory(), menu);
 	}
 }
@@ -0,0 +1,124 @@
+package com.wonkglorg.utilitylib.manager;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.Inventory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Keeps the backing inventories of destroyed menus around so the next menu with the same size and title can reuse them instead of creating a new
+ * one. Only the inventory is reused, every menu still gets its own {@link com.wonkglorg.utilitylib.inventory.GuiInventory} instance so a reference
+ * to a destroyed menu stays destroyed and can never act on the menu now using its inventory (destroyed menus no longer write to their inventory).
+ * <p>
+ * Pooling is disabled by default, set a limit with {@link #setMaxIdlePerKey(int)} to enable it.
+ */
+@SuppressWarnings("unused")
+public final class InventoryPool{
+	
+	/**
+	 * The maximum amount of idle inventories kept for each size and title, 0 or less disables pooling
+	 */
+	@Getter
+	@Setter
+	private int maxIdlePerKey = 0;
+	
+	/**
+	 * The amount of inventories reused from the pool
+	 */
+	@Getter
+	private long hits = 0;
+	/**
+	 * The amount of inventories that had to be created because none was available
+	 */
+	@Getter
+	private long misses = 0;
+	
+	private final Map<Key, Deque<Inventory>> idle = new HashMap<>();
+	
+	InventoryPool() {
+	}
+	
+	/**
+	 * @return Whether inventories are pooled
+	 */
+	public boolean isEnabled() {
+		return maxIdlePerKey > 0;
+	}
+	
+	/**
+	 * Gets an empty inventory with the given size and title, reusing an idle one if possible
+	 *
+	 * @param size The size of the inventory
+	 * @param title The title of the inventory
+	 * @return The inventory
+	 */
+	public Inventory acquire(int size, Component title) {
+		if(isEnabled()){
+			Deque<Inventory> inventories = idle.get(new Key(size, title));
+			if(inventories != null){
+				for(Iterator<Inventory> iterator = inventories.iterator(); iterator.hasNext(); ){
+					Inventory inventory = iterator.next();
+					//inventories released during a close event are still viewed until the event is over
+					if(inventory.getViewers().isEmpty()){
+						iterator.remove();
+						hits++;
+						return inventory;
+					}
+				}
+			}
+		}
+		misses++;
+		return Bukkit.createInventory(null, size, title);
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, automatically called when a menu using a pooled inventory is destroyed. Returns an inventory to the pool, the inventory is
+	 * cleared and dropped if the pool for its size and title is full
+	 *
+	 * @param inventory The inventory to return
+	 * @param title The title the inventory was created with
+	 */
+	public void release(Inventory inventory, Component title) {
+		if(!isEnabled()){
+			return;
+		}
+		inventory.clear();
+		Deque<Inventory> inventories = idle.computeIfAbsent(new Key(inventory.getSize(), title), key -> new ArrayDeque<>());
+		if(inventories.size() < maxIdlePerKey && !inventories.contains(inventory)){
+			inventories.add(inventory);
+		}
+	}
+	
+	/**
+	 * @return The amount of idle inventories in the pool
+	 */
+	public int getIdleCount() {
+		int count = 0;
+		for(Deque<Inventory> inventories : idle.values()){
+			count += inventories.size();
+		}
+		return count;
+	}
+	
+	/**
+	 * Drops all idle inventories
+	 */
+	public void clear() {
+		idle.clear();
+	}
+	
+	/**
+	 * The size and title identifying interchangeable inventories
+	 *
+	 * @param size The size of the inventory
+	 * @param title The title of the inventory
+	 */
+	private record Key(int size, Component title){}
+}
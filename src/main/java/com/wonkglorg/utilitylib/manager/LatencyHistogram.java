@@ -0,0 +1,117 @@
+package com.wonkglorg.utilitylib.manager;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations with one bucket per power of two nanoseconds, recording a value is a couple of arithmetic operations and never allocates
+ * so it can stay enabled in production. Percentiles are estimated as the upper bound of the bucket they fall into, so they are accurate to within a
+ * factor of two which is enough to tell a 50us click from a 5ms one.
+ */
+@SuppressWarnings("unused")
+public final class LatencyHistogram{
+	/**
+	 * The amount of buckets, bucket n holds values from 2^(n-1) up to 2^n - 1 nanoseconds (bucket 0 only holds 0)
+	 */
+	public static final int BUCKETS = 64;
+	
+	private final long[] counts = new long[BUCKETS];
+	/**
+	 * The amount of recorded values
+	 */
+	@Getter
+	private long count = 0;
+	/**
+	 * The sum of all recorded values in nanoseconds
+	 */
+	@Getter
+	private long totalNanos = 0;
+	/**
+	 * The largest recorded value in nanoseconds
+	 */
+	@Getter
+	private long maxNanos = 0;
+	
+	/**
+	 * Records a duration
+	 *
+	 * @param nanos The duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		if(nanos < 0){
+			nanos = 0;
+		}
+		counts[BUCKETS - Long.numberOfLeadingZeros(nanos)]++;
+		count++;
+		totalNanos += nanos;
+		if(nanos > maxNanos){
+			maxNanos = nanos;
+		}
+	}
+	
+	/**
+	 * @return The average recorded duration in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getMeanNanos() {
+		return count == 0 ? 0 : totalNanos / count;
+	}
+	
+	/**
+	 * Estimates a percentile of the recorded durations
+	 *
+	 * @param percentile The percentile (0 to 100)
+	 * @return The upper bound of the bucket the percentile falls into in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getPercentileNanos(double percentile) {
+		if(count == 0){
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100.0);
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			seen += counts[i];
+			if(seen >= rank && seen > 0){
+				return Math.min(maxNanos, getUpperBound(i));
+			}
+		}
+		return maxNanos;
+	}
+	
+	/**
+	 * @param bucket The bucket
+	 * @return The largest value in nanoseconds that falls into the bucket
+	 */
+	public static long getUpperBound(int bucket) {
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+	
+	/**
+	 * @return A copy of the count of every bucket
+	 */
+	public long[] getBucketCounts() {
+		return counts.clone();
+	}
+	
+	/**
+	 * @return A copy of this histogram
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		System.arraycopy(counts, 0, copy.counts, 0, BUCKETS);
+		copy.count = count;
+		copy.totalNanos = totalNanos;
+		copy.maxNanos = maxNanos;
+		return copy;
+	}
+	
+	/**
+	 * Removes all recorded values
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		totalNanos = 0;
+		maxNanos = 0;
+	}
+}
@@ -0,0 +1,148 @@
+package com.wonkglorg.utilitylib.manager;
+
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Collects metrics per menu class (opens, open menus, click handling latency, renders and slot writes, page flips and paginated entries held) so it
+ * can be seen which menus cost server time. Counters are plain fields updated on the main thread and gauges (open menus, entries held) are only
+ * computed when a snapshot is taken, so the metrics are cheap enough to stay enabled in production.
+ * <p>
+ * Snapshots are handed to the registered {@link MetricsExporter}s every {@link #getExportIntervalTicks()} ticks or whenever {@link #export()} is
+ * called.
+ */
+@SuppressWarnings("unused")
+public final class MenuMetrics{
+	
+	/**
+	 * Whether metrics are recorded
+	 */
+	@Getter
+	@Setter
+	private boolean enabled = true;
+	/**
+	 * The amount of ticks between two automatic exports, 0 or less only exports when {@link #export()} is called
+	 */
+	@Getter
+	@Setter
+	private int exportIntervalTicks = 20 * 60;
+	
+	private final Map<Class<?>, MenuTypeMetrics> types = new HashMap<>();
+	private final List<MetricsExporter> exporters = new ArrayList<>();
+	private int ticksSinceExport = 0;
+	
+	MenuMetrics() {
+	}
+	
+	/**
+	 * Gets the counters of a menu class, creating them if needed
+	 *
+	 * @param type The menu class
+	 * @return The counters
+	 */
+	public MenuTypeMetrics forType(Class<?> type) {
+		return types.computeIfAbsent(type, key -> new MenuTypeMetrics(key, this));
+	}
+	
+	/**
+	 * @return The counters of every menu class used so far
+	 */
+	public Collection<MenuTypeMetrics> getTypes() {
+		return List.copyOf(types.values());
+	}
+	
+	/**
+	 * @param exporter The exporter to add
+	 */
+	public void addExporter(MetricsExporter exporter) {
+		exporters.add(exporter);
+	}
+	
+	/**
+	 * @param exporter The exporter to remove
+	 */
+	public void removeExporter(MetricsExporter exporter) {
+		exporters.remove(exporter);
+	}
+	
+	/**
+	 * Takes a snapshot of the metrics of every menu class used so far
+	 *
+	 * @return The snapshots
+	 */
+	public List<Snapshot> snapshot() {
+		Map<Class<?>, int[]> gauges = new HashMap<>();
+		for(GuiInventory<?> menu : GuiManager.getRegisteredMenus()){
+			int[] gauge = gauges.computeIfAbsent(menu.getClass(), key -> new int[2]);
+			gauge[0]++;
+			gauge[1] += menu.getPaginatedEntryCount();
+		}
+		List<Snapshot> snapshots = new ArrayList<>(types.size());
+		for(MenuTypeMetrics metrics : types.values()){
+			int[] gauge = gauges.getOrDefault(metrics.getType(), new int[2]);
+			snapshots.add(new Snapshot(metrics.getType(), metrics.getOpens(), gauge[0], metrics.getClickLatency(), metrics.getRenders(),
+					metrics.getSlotWrites(), metrics.getPageFlips(), gauge[1]));
+		}
+		return snapshots;
+	}
+	
+	/**
+	 * Hands a snapshot to every registered exporter
+	 */
+	public void export() {
+		ticksSinceExport = 0;
+		if(exporters.isEmpty()){
+			return;
+		}
+		List<Snapshot> snapshots = List.copyOf(snapshot());
+		for(MetricsExporter exporter : exporters){
+			try{
+				exporter.export(snapshots);
+			} catch(RuntimeException e){
+				Bukkit.getLogger().log(Level.WARNING, "Menu metrics exporter " + exporter.getClass().getName() + " failed", e);
+			}
+		}
+	}
+	
+	/**
+	 * Resets the counters of every menu class
+	 */
+	public void reset() {
+		for(MenuTypeMetrics metrics : types.values()){
+			metrics.reset();
+		}
+	}
+	
+	/**
+	 * Exports once the export interval is over
+	 */
+	void tick() {
+		if(exportIntervalTicks > 0 && ++ticksSinceExport >= exportIntervalTicks){
+			export();
+		}
+	}
+	
+	/**
+	 * The metrics of a menu class at the time the snapshot was taken
+	 *
+	 * @param type The menu class
+	 * @param opens The amount of times a menu of the class was opened
+	 * @param open The amount of menus of the class currently registered in the {@link GuiManager}
+	 * @param clickLatency The durations it took to handle clicks
+	 * @param renders The amount of flushes that wrote at least one slot
+	 * @param slotWrites The amount of slots written to inventories
+	 * @param pageFlips The amount of page changes of pagination panels
+	 * @param entriesHeld The amount of entries held by the pagination panels of the currently open menus
+	 */
+	public record Snapshot(Class<?> type, long opens, int open, LatencyHistogram clickLatency, long renders, long slotWrites, long pageFlips,
+						   long entriesHeld){}
+}
@@ -0,0 +1,107 @@
+package com.wonkglorg.utilitylib.manager;
+
+import lombok.Getter;
+
+/**
+ * The counters of a single menu class, every menu holds on to the counters of its class so recording is a field increment without any lookup.
+ * Counters are cumulative since the server started (or the last {@link MenuMetrics#reset()}), only the main thread records into them.
+ */
+@SuppressWarnings("unused")
+public final class MenuTypeMetrics{
+	/**
+	 * The menu class the counters are for
+	 */
+	@Getter
+	private final Class<?> type;
+	private final MenuMetrics registry;
+	
+	/**
+	 * The amount of times a menu of this class was opened (shared menus count every player they are opened for)
+	 */
+	@Getter
+	private long opens = 0;
+	/**
+	 * The amount of flushes that wrote at least one slot
+	 */
+	@Getter
+	private long renders = 0;
+	/**
+	 * The amount of slots written to inventories
+	 */
+	@Getter
+	private long slotWrites = 0;
+	/**
+	 * The amount of times a pagination panel of a menu of this class changed its page
+	 */
+	@Getter
+	private long pageFlips = 0;
+	private final LatencyHistogram clickLatency = new LatencyHistogram();
+	
+	MenuTypeMetrics(Class<?> type, MenuMetrics registry) {
+		this.type = type;
+		this.registry = registry;
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, records a menu being opened
+	 */
+	public void recordOpen() {
+		if(registry.isEnabled()){
+			opens++;
+		}
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, records the time it took a menu to handle a click
+	 *
+	 * @param nanos The duration in nanoseconds
+	 */
+	public void recordClick(long nanos) {
+		if(registry.isEnabled()){
+			clickLatency.record(nanos);
+		}
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, records a flush
+	 *
+	 * @param slots The amount of slots written
+	 */
+	public void recordRender(int slots) {
+		if(registry.isEnabled()){
+			renders++;
+			slotWrites += slots;
+		}
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, records a pagination panel changing its page
+	 */
+	public void recordPageFlip() {
+		if(registry.isEnabled()){
+			pageFlips++;
+		}
+	}
+	
+	/**
+	 * @return The amount of clicks handled
+	 */
+	public long getClicks() {
+		return clickLatency.getCount();
+	}
+	
+	/**
+	 * @return A copy of the histogram of click handling durations
+	 */
+	public LatencyHistogram getClickLatency() {
+		return clickLatency.copy();
+	}
+	
+	void reset() {
+		opens = 0;
+		renders = 0;
+		slotWrites = 0;
+		pageFlips = 0;
+		clickLatency.reset();
+	}
+}
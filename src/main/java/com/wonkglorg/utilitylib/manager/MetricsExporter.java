@@ -0,0 +1,41 @@
+package com.wonkglorg.utilitylib.manager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives the metrics of all menu classes, register it with {@link MenuMetrics#addExporter(MetricsExporter)}. Exporters are called on the main
+ * thread, anything slow (network, files) should be handed off to another thread, the snapshots are copies and safe to pass on.
+ */
+@FunctionalInterface
+public interface MetricsExporter{
+	
+	/**
+	 * Exports the metrics
+	 *
+	 * @param snapshots The metrics of every menu class that was used so far
+	 */
+	void export(List<MenuMetrics.Snapshot> snapshots);
+	
+	/**
+	 * Creates an exporter writing one line per menu class to a logger
+	 *
+	 * @param logger The logger to write to (usually the plugin logger)
+	 * @return The exporter
+	 */
+	static MetricsExporter logging(Logger logger) {
+		return snapshots -> {
+			for(MenuMetrics.Snapshot snapshot : snapshots){
+				LatencyHistogram clicks = snapshot.clickLatency();
+				logger.log(Level.INFO,
+						"{0}: opens={1} open={2} clicks={3} click-p50={4}us click-p99={5}us click-max={6}us renders={7} slot-writes={8} page-flips={9} entries={10}",
+						new Object[]{snapshot.type().getSimpleName(), snapshot.opens(), snapshot.open(), clicks.getCount(),
+								TimeUnit.NANOSECONDS.toMicros(clicks.getPercentileNanos(50)), TimeUnit.NANOSECONDS.toMicros(clicks.getPercentileNanos(99)),
+								TimeUnit.NANOSECONDS.toMicros(clicks.getMaxNanos()), snapshot.renders(), snapshot.slotWrites(), snapshot.pageFlips(),
+								snapshot.entriesHeld()});
+			}
+		};
+	}
+}
@@ -0,0 +1,133 @@
+package com.wonkglorg.utilitylib.manager;
+
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Spreads expensive menu work (menu builds and page renders) over multiple ticks so that many players opening menus at the same time don't cause a
+ * single lag spike. Every tick queued work is run until the configured time budget is used up, the rest waits for the next tick.
+ * <p>
+ * The queue is disabled by default (menus are built synchronously), set a budget with {@link #setTickBudgetNanos(long)} to enable it.
+ */
+@SuppressWarnings("unused")
+public final class RenderQueue{
+	
+	/**
+	 * The time in nanoseconds that may be spent on queued work each tick, 0 or less disables the queue
+	 */
+	@Getter
+	@Setter
+	private long tickBudgetNanos = 0;
+	
+	/**
+	 * Called with the stats of every tick in which queued work was run
+	 */
+	@Setter
+	private Consumer<TickStats> statsListener;
+	
+	/**
+	 * The stats of the last tick in which queued work was run
+	 */
+	@Getter
+	private TickStats lastTickStats = new TickStats(0, 0, 0, 0);
+	
+	private final Queue<Task> queue = new ArrayDeque<>();
+	
+	RenderQueue() {
+	}
+	
+	/**
+	 * @return Whether work is spread over multiple ticks (a budget has been set)
+	 */
+	public boolean isEnabled() {
+		return tickBudgetNanos > 0;
+	}
+	
+	/**
+	 * Queues work for a menu, the work is skipped if the menu is destroyed before it runs
+	 *
+	 * @param menu The menu the work is for
+	 * @param task The work to run
+	 */
+	public void submit(GuiInventory<?> menu, Runnable task) {
+		submit(menu, task, null);
+	}
+	
+	/**
+	 * Queues work for a menu, the work is skipped if the menu is destroyed before it runs
+	 *
+	 * @param menu The menu the work is for
+	 * @param task The work to run
+	 * @param onDropped Runs instead of the work if the work is skipped, used to reset state set when the work was queued (may be null)
+	 */
+	public void submit(GuiInventory<?> menu, Runnable task, Runnable onDropped) {
+		queue.add(new Task(menu, task, onDropped));
+	}
+	
+	/**
+	 * @return The amount of tasks waiting to be run
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+	
+	/**
+	 * Runs queued work until the tick budget is used up, at least one task is run every tick so the queue always makes progress
+	 *
+	 * @param tick The current tick
+	 */
+	void process(int tick) {
+		if(queue.isEmpty()){
+			return;
+		}
+		long start = System.nanoTime();
+		int processed = 0;
+		while(!queue.isEmpty()){
+			if(processed > 0 && isEnabled() && System.nanoTime() - start >= tickBudgetNanos){
+				break;
+			}
+			Task task = queue.poll();
+			if(task.menu().isDestroyed()){
+				if(task.onDropped() != null){
+					task.onDropped().run();
+				}
+				continue;
+			}
+			try{
+				task.task().run();
+			} catch(RuntimeException e){
+				task.menu().getPlugin().getLogger().log(Level.SEVERE, "Failed to render menu " + task.menu().getClass().getName(), e);
+			}
+			processed++;
+		}
+		lastTickStats = new TickStats(tick, processed, queue.size(), System.nanoTime() - start);
+		if(statsListener != null){
+			statsListener.accept(lastTickStats);
+		}
+	}
+	
+	/**
+	 * A queued piece of work
+	 *
+	 * @param menu The menu the work is for
+	 * @param task The work to run
+	 * @param onDropped Runs if the work is skipped (may be null)
+	 */
+	private record Task(GuiInventory<?> menu, Runnable task, Runnable onDropped){}
+	
+	/**
+	 * The stats of a single tick
+	 *
+	 * @param tick The tick number
+	 * @param processed The amount of tasks run during the tick
+	 * @param queueDepth The amount of tasks still waiting after the tick
+	 * @param nanosSpent The time spent running tasks in nanoseconds
+	 */
+	public record TickStats(int tick, int processed, int queueDepth, long nanosSpent){}
+}
@@ -0,0 +1,157 @@
+package com.wonkglorg.utilitylib.manager;
+
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import com.wonkglorg.utilitylib.inventory.TickingComponent;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Drives the {@link TickingComponent}s of all menus from the tick listener of the {@link GuiManager} instead of a scheduler task per component.
+ * Components are kept in a hashed timing wheel: a ring of buckets indexed by the tick they are due in, so every tick only the components of a single
+ * bucket are looked at no matter how many components are registered. Components with a period longer than the wheel simply stay in their bucket
+ * for another round.
+ * <p>
+ * Components are registered through {@link GuiInventory#addTicking(int, TickingComponent)}, which takes care of starting them when the menu opens
+ * and stopping them when it is destroyed.
+ */
+@SuppressWarnings("unused")
+public final class TickWheel{
+	/**
+	 * The amount of buckets in the wheel, a power of two so the bucket of a tick is a single mask
+	 */
+	private static final int WHEEL_SIZE = 512;
+	private static final int MASK = WHEEL_SIZE - 1;
+	
+	private final List<Task>[] buckets;
+	/**
+	 * An empty bucket swapped in while a bucket is processed, so components can be rescheduled into the bucket being processed
+	 */
+	private List<Task> spare = new ArrayList<>();
+	
+	/**
+	 * The amount of ticks this wheel has run for
+	 */
+	@Getter
+	private long currentTick = 0;
+	/**
+	 * The amount of scheduled components that have not been cancelled
+	 */
+	@Getter
+	private int activeCount = 0;
+	
+	@SuppressWarnings("unchecked")
+	TickWheel() {
+		buckets = new List[WHEEL_SIZE];
+		for(int i = 0; i < WHEEL_SIZE; i++){
+			buckets[i] = new ArrayList<>();
+		}
+	}
+	
+	/**
+	 * FOR INTERNAL USE ONLY, use {@link GuiInventory#addTicking(int, TickingComponent)}. Schedules a component, it first runs one period from now
+	 *
+	 * @param gui The menu the component belongs to
+	 * @param periodTicks The amount of ticks between two runs
+	 * @param component The component
+	 * @return The scheduled task which can be cancelled
+	 */
+	public Task schedule(GuiInventory<?> gui, int periodTicks, TickingComponent component) {
+		if(periodTicks <= 0){
+			throw new IllegalArgumentException("The period must be positive!");
+		}
+		Task task = new Task(gui, component, periodTicks);
+		task.dueTick = currentTick + periodTicks;
+		bucketOf(task.dueTick).add(task);
+		activeCount++;
+		return task;
+	}
+	
+	private List<Task> bucketOf(long tick) {
+		return buckets[(int) (tick & MASK)];
+	}
+	
+	/**
+	 * Advances the wheel by one tick and runs all components due
+	 */
+	void tick() {
+		currentTick++;
+		int index = (int) (currentTick & MASK);
+		List<Task> bucket = buckets[index];
+		if(bucket.isEmpty()){
+			return;
+		}
+		buckets[index] = spare;
+		for(int i = 0; i < bucket.size(); i++){
+			Task task = bucket.get(i);
+			if(task.cancelled){
+				continue;
+			}
+			if(task.dueTick > currentTick){
+				//due in a later round of the wheel
+				buckets[index].add(task);
+				continue;
+			}
+			run(task);
+			if(!task.cancelled){
+				task.dueTick = currentTick + task.period;
+				bucketOf(task.dueTick).add(task);
+			}
+		}
+		bucket.clear();
+		spare = bucket;
+	}
+	
+	private void run(Task task) {
+		if(task.gui.isDestroyed()){
+			task.cancel();
+			return;
+		}
+		try{
+			task.component.tick(task.gui, currentTick);
+		} catch(RuntimeException e){
+			task.cancel();
+			task.gui.getPlugin().getLogger().log(Level.SEVERE, "Ticking component of menu " + task.gui.getClass().getName() + " failed and was stopped", e);
+		}
+	}
+	
+	/**
+	 * A component scheduled on the wheel
+	 */
+	public final class Task{
+		private final GuiInventory<?> gui;
+		private final TickingComponent component;
+		/**
+		 * The amount of ticks between two runs
+		 */
+		@Getter
+		private final int period;
+		/**
+		 * The tick the component runs next
+		 */
+		private long dueTick;
+		/**
+		 * Whether the component was stopped, cancelled tasks are dropped from the wheel the next time their bucket comes up
+		 */
+		@Getter
+		private boolean cancelled = false;
+		
+		private Task(GuiInventory<?> gui, TickingComponent component, int period) {
+			this.gui = gui;
+			this.component = component;
+			this.period = period;
+		}
+		
+		/**
+		 * Stops the component
+		 */
+		public void cancel() {
+			if(!cancelled){
+				cancelled = true;
+				activeCount--;
+			}
+		}
+	}
+}
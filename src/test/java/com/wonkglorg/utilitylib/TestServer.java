@@ -0,0 +1,236 @@
+package com.wonkglorg.utilitylib;
+
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * A minimal server for tests, inventories, players and views are array backed proxies and tasks scheduled on the main thread are collected until
+ * {@link #runTasks()} runs them. Every method without an implementation returns the default value of its return type.
+ */
+public final class TestServer{
+	private static final Queue<Runnable> tasks = new ArrayDeque<>();
+	private static JavaPlugin plugin;
+	
+	private TestServer() {
+	}
+	
+	/**
+	 * Installs the test server and creates the {@link GuiManager} instance, does nothing if it is already installed
+	 *
+	 * @return The plugin owning the gui manager
+	 */
+	public static synchronized JavaPlugin install() {
+		if(plugin != null){
+			return plugin;
+		}
+		Map<String, Function<Object[], Object>> scheduler = new HashMap<>();
+		Function<Object[], Object> schedule = args -> {
+			tasks.add((Runnable) args[1]);
+			return null;
+		};
+		scheduler.put("runTask", schedule);
+		scheduler.put("runTaskLater", schedule);
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		BukkitScheduler bukkitScheduler = proxy(BukkitScheduler.class, scheduler);
+		PluginManager pluginManager = proxy(PluginManager.class, Map.of());
+		Logger logger = Logger.getLogger("TestServer");
+		methods.put("getScheduler", args -> bukkitScheduler);
+		methods.put("getPluginManager", args -> pluginManager);
+		methods.put("getLogger", args -> logger);
+		methods.put("isPrimaryThread", args -> true);
+		methods.put("createInventory", args -> inventory((int) args[1]));
+		Server server = proxy(Server.class, methods);
+		setField(Bukkit.class, null, "server", server);
+		
+		//plugins can only be constructed by the plugin class loader, so the instance is allocated without running the constructor
+		JavaPlugin created = (JavaPlugin) allocate(TestPlugin.class);
+		setField(JavaPlugin.class, created, "server", server);
+		setField(JavaPlugin.class, created, "logger", logger);
+		setField(JavaPlugin.class, created, "isEnabled", true);
+		plugin = created;
+		GuiManager.createInstance(plugin);
+		return plugin;
+	}
+	
+	/**
+	 * Runs all tasks scheduled on the main thread so far, including tasks scheduled by those tasks
+	 *
+	 * @return The amount of tasks run
+	 */
+	public static int runTasks() {
+		int count = 0;
+		for(Runnable task = tasks.poll(); task != null; task = tasks.poll()){
+			task.run();
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Creates an inventory backed by an array
+	 *
+	 * @param size The size of the inventory
+	 * @return The inventory
+	 */
+	public static Inventory inventory(int size) {
+		ItemStack[] contents = new ItemStack[size];
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getSize", args -> size);
+		methods.put("getItem", args -> contents[(int) args[0]]);
+		methods.put("setItem", args -> contents[(int) args[0]] = (ItemStack) args[1]);
+		methods.put("getContents", args -> contents.clone());
+		methods.put("clear", args -> {
+			if(args == null){
+				Arrays.fill(contents, null);
+			} else {
+				contents[(int) args[0]] = null;
+			}
+			return null;
+		});
+		return proxy(Inventory.class, methods);
+	}
+	
+	/**
+	 * Creates a player, opening an inventory replaces the view returned by {@code getOpenInventory}
+	 *
+	 * @param uuid The uuid of the player
+	 * @return The player
+	 */
+	public static Player player(UUID uuid) {
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		InventoryView[] openView = new InventoryView[1];
+		Player player = proxy(Player.class, methods);
+		methods.put("getUniqueId", args -> uuid);
+		methods.put("isOnline", args -> true);
+		methods.put("getOpenInventory", args -> openView[0]);
+		methods.put("openInventory", args -> openView[0] = view((Inventory) args[0], player));
+		methods.put("closeInventory", args -> openView[0] = null);
+		return player;
+	}
+	
+	/**
+	 * Creates the view of a player looking at an inventory, raw slots past the top inventory have no inventory
+	 *
+	 * @param top The inventory the player is looking at
+	 * @param player The player
+	 * @return The view
+	 */
+	public static InventoryView view(Inventory top, Player player) {
+		Map<String, Function<Object[], Object>> methods = new HashMap<>();
+		methods.put("getTopInventory", args -> top);
+		methods.put("getPlayer", args -> player);
+		methods.put("convertSlot", args -> args[0]);
+		methods.put("getInventory", args -> (int) args[0] < top.getSize() ? top : null);
+		methods.put("getSlotType", args -> InventoryType.SlotType.CONTAINER);
+		methods.put("getItem", args -> top.getItem((int) args[0]));
+		return proxy(InventoryView.class, methods);
+	}
+	
+	/**
+	 * Creates a left click on a slot of the inventory a player has open, the event is not passed to any listener
+	 *
+	 * @param player The player clicking
+	 * @param rawSlot The clicked raw slot
+	 * @return The event
+	 */
+	public static InventoryClickEvent click(Player player, int rawSlot) {
+		return new InventoryClickEvent(player.getOpenInventory(), InventoryType.SlotType.CONTAINER, rawSlot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+		return (T) Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			if(method.getName().equals("equals") && args != null && args.length == 1){
+				return proxy == args[0];
+			}
+			if(method.getName().equals("hashCode") && args == null){
+				return System.identityHashCode(proxy);
+			}
+			if(method.getName().equals("toString") && args == null){
+				return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+			Function<Object[], Object> implementation = methods.get(method.getName());
+			return implementation != null ? implementation.apply(args) : defaultValue(method.getReturnType());
+		});
+	}
+	
+	private static Object defaultValue(Class<?> type) {
+		if(type == boolean.class){
+			return false;
+		}
+		if(type == int.class || type == short.class || type == byte.class){
+			return 0;
+		}
+		if(type == long.class){
+			return 0L;
+		}
+		if(type == double.class){
+			return 0.0;
+		}
+		if(type == float.class){
+			return 0f;
+		}
+		if(type == List.class || type == Collection.class){
+			return List.of();
+		}
+		if(type == Set.class){
+			return Set.of();
+		}
+		if(type == Map.class){
+			return Map.of();
+		}
+		return null;
+	}
+	
+	private static Object allocate(Class<?> type) {
+		try{
+			Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			Object unsafe = field.get(null);
+			Method allocate = unsafe.getClass().getMethod("allocateInstance", Class.class);
+			return allocate.invoke(unsafe, type);
+		} catch(ReflectiveOperationException e){
+			throw new IllegalStateException("Unable to allocate " + type.getName(), e);
+		}
+	}
+	
+	private static void setField(Class<?> type, Object target, String name, Object value) {
+		try{
+			Field field = type.getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(target, value);
+		} catch(ReflectiveOperationException e){
+			throw new IllegalStateException("Unable to set " + type.getSimpleName() + "." + name, e);
+		}
+	}
+	
+	private static final class TestPlugin extends JavaPlugin{
+	}
+}
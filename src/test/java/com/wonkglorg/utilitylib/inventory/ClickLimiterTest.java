@@ -0,0 +1,107 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wonkglorg.utilitylib.TestServer;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ClickLimiterTest{
+	private static final int BUTTON_SLOT = 4;
+	
+	private JavaPlugin plugin;
+	private Player player;
+	
+	@BeforeEach
+	void setUp() {
+		plugin = TestServer.install();
+		player = TestServer.player(UUID.randomUUID());
+	}
+	
+	@AfterEach
+	void tearDown() {
+		TestServer.runTasks();
+		GuiManager.cleanup();
+	}
+	
+	@Test
+	void heldBackClickRunsThroughTheMenuWithANewEvent() throws InterruptedException {
+		ClickLimiter limiter = ClickLimiter.minInterval(50);
+		limiter.setExcessMode(ClickLimiter.ExcessMode.QUEUE);
+		AtomicInteger buttonClicks = new AtomicInteger();
+		TestMenu menu = open(limiter, buttonClicks);
+		List<InventoryClickEvent> seen = new ArrayList<>();
+		menu.setOnClick(seen::add);
+		
+		menu.onClick(TestServer.click(player, BUTTON_SLOT));
+		InventoryClickEvent throttled = TestServer.click(player, BUTTON_SLOT);
+		menu.onClick(throttled);
+		assertTrue(throttled.isCancelled());
+		assertEquals(1, buttonClicks.get());
+		assertEquals(1, seen.size(), "held back clicks don't reach the menu");
+		
+		Thread.sleep(60);
+		TestServer.runTasks();
+		assertEquals(2, buttonClicks.get());
+		assertEquals(2, seen.size(), "the replayed click passes the menu's click listener");
+		assertNotSame(throttled, seen.get(1));
+		assertEquals(BUTTON_SLOT, seen.get(1).getSlot());
+		assertEquals(1, limiter.getQueuedClicks());
+		assertEquals(0, limiter.getDroppedClicks());
+	}
+	
+	@Test
+	void heldBackClicksDoNotHoldUpTheNextMenu() {
+		ClickLimiter limiter = ClickLimiter.minInterval(10_000);
+		limiter.setExcessMode(ClickLimiter.ExcessMode.QUEUE);
+		AtomicInteger firstClicks = new AtomicInteger();
+		TestMenu first = open(limiter, firstClicks);
+		first.onClick(TestServer.click(player, BUTTON_SLOT));
+		first.onClick(TestServer.click(player, BUTTON_SLOT));
+		assertEquals(1, firstClicks.get());
+		
+		AtomicInteger secondClicks = new AtomicInteger();
+		TestMenu second = open(limiter, secondClicks);
+		InventoryClickEvent click = TestServer.click(player, BUTTON_SLOT);
+		second.onClick(click);
+		
+		assertEquals(1, secondClicks.get(), "the click was not throttled by the backlog of the first menu");
+		assertEquals(1, limiter.getDroppedClicks());
+		TestServer.runTasks();
+		assertEquals(1, firstClicks.get());
+	}
+	
+	private TestMenu open(ClickLimiter limiter, AtomicInteger clicks) {
+		TestMenu menu = new TestMenu(plugin, player);
+		menu.setClickLimiter(limiter);
+		menu.registerDefaultClicks();
+		menu.addButton(Button.create((ItemStack) null, e -> clicks.incrementAndGet()), BUTTON_SLOT);
+		GuiManager.addMenu(player.getUniqueId(), menu);
+		player.openInventory(menu.getInventory());
+		return menu;
+	}
+	
+	private static final class TestMenu extends GuiInventory<MenuProfile>{
+		private TestMenu(JavaPlugin plugin, Player player) {
+			super(TestServer.inventory(54), plugin, player);
+		}
+		
+		@Override
+		public void addComponents() {
+		}
+	}
+}
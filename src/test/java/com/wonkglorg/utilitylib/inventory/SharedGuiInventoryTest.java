@@ -0,0 +1,89 @@
+package com.wonkglorg.utilitylib.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wonkglorg.utilitylib.TestServer;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+class SharedGuiInventoryTest{
+	
+	private JavaPlugin plugin;
+	
+	@BeforeEach
+	void setUp() {
+		plugin = TestServer.install();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		GuiManager.cleanup();
+	}
+	
+	@Test
+	void openWithoutAPlayerOnlyBuildsTheMenu() {
+		TestMenu menu = new TestMenu(plugin);
+		menu.open();
+		menu.open();
+		assertEquals(1, menu.builds);
+		assertEquals(0, menu.getViewerCount());
+		
+		Player player = TestServer.player(UUID.randomUUID());
+		menu.open(player);
+		assertEquals(1, menu.builds, "the components were already added");
+		assertSame(menu.getInventory(), player.getOpenInventory().getTopInventory());
+	}
+	
+	@Test
+	void cleanupOfAViewerKeepsTheMenuOpenForTheOthers() {
+		TestMenu menu = new TestMenu(plugin);
+		Player first = TestServer.player(UUID.randomUUID());
+		Player second = TestServer.player(UUID.randomUUID());
+		menu.open(first);
+		menu.open(second);
+		assertNull(menu.getPlayer());
+		
+		GuiManager.cleanup(first.getUniqueId());
+		assertNull(first.getOpenInventory());
+		assertEquals(1, menu.getViewerCount());
+		assertFalse(menu.isDestroyed());
+		assertSame(menu, GuiManager.getMenu(second.getUniqueId()).orElse(null));
+	}
+	
+	@Test
+	void cleanupOfAMenuWithoutAnOwner() {
+		GuiInventory<MenuProfile> menu = new GuiInventory<>(TestServer.inventory(27), plugin, (MenuProfile) null){
+			@Override
+			public void addComponents() {
+			}
+		};
+		UUID uuid = UUID.randomUUID();
+		GuiManager.addMenu(uuid, menu);
+		GuiManager.cleanup(uuid);
+		assertTrue(menu.isDestroyed());
+	}
+	
+	private static final class TestMenu extends SharedGuiInventory<MenuProfile>{
+		private int builds = 0;
+		
+		private TestMenu(JavaPlugin plugin) {
+			super(TestServer.inventory(27), plugin);
+		}
+		
+		@Override
+		public void addComponents() {
+			builds++;
+		}
+	}
+}
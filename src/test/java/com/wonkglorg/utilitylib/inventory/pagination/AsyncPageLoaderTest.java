@@ -0,0 +1,121 @@
+package com.wonkglorg.utilitylib.inventory.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.wonkglorg.utilitylib.TestServer;
+import com.wonkglorg.utilitylib.inventory.GuiInventory;
+import com.wonkglorg.utilitylib.inventory.PaginationGui;
+import com.wonkglorg.utilitylib.inventory.profile.MenuProfile;
+import com.wonkglorg.utilitylib.manager.GuiManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class AsyncPageLoaderTest{
+	private JavaPlugin plugin;
+	private Player player;
+	private TestMenu menu;
+	
+	@BeforeEach
+	void setUp() {
+		plugin = TestServer.install();
+		player = TestServer.player(UUID.randomUUID());
+		menu = new TestMenu(plugin, player);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		TestServer.runTasks();
+		GuiManager.cleanup();
+	}
+	
+	@Test
+	void keysetCursorMovesForwardAcrossPages() {
+		List<Integer> rows = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+		List<Integer> requestedKeys = new ArrayList<>();
+		AsyncPageSource<Integer, Integer> source = AsyncPageSource.keyset((after, limit) -> {
+			requestedKeys.add(after);
+			return CompletableFuture.completedFuture(rows.stream().filter(id -> after == null || id > after).limit(limit).collect(Collectors.toList()));
+		}, id -> id);
+		AtomicInteger loaded = new AtomicInteger();
+		AsyncPageLoader<Integer, Integer> loader = new AsyncPageLoader<>(source, menu, loaded::incrementAndGet);
+		
+		loader.load(1, 10);
+		TestServer.runTasks();
+		assertTrue(loader.isLoaded(1));
+		assertEquals(1, loader.get(0));
+		assertEquals(10, loader.size());
+		assertEquals(2, loader.getKnownPages());
+		
+		loader.load(2, 10);
+		TestServer.runTasks();
+		assertEquals(11, loader.get(10));
+		assertEquals(20, loader.size());
+		assertFalse(loader.contains(9), "entries of the previous page are no longer loaded");
+		
+		loader.load(3, 10);
+		TestServer.runTasks();
+		assertEquals(25, loader.size());
+		assertEquals(3, loader.getKnownPages(), "the last page has no next cursor");
+		assertEquals(Arrays.asList(null, 10, 20), requestedKeys);
+		assertEquals(3, loaded.get());
+	}
+	
+	@Test
+	void resultArrivingAfterDestroyIsDropped() {
+		CompletableFuture<AsyncPageSource.Page<Integer, Integer>> pending = new CompletableFuture<>();
+		AtomicInteger loaded = new AtomicInteger();
+		AsyncPageLoader<Integer, Integer> loader = new AsyncPageLoader<>((cursor, limit) -> pending, menu, loaded::incrementAndGet);
+		
+		loader.load(1, 10);
+		menu.destroy(null, false);
+		pending.complete(new AsyncPageSource.Page<>(List.of(1, 2, 3), null));
+		TestServer.runTasks();
+		
+		assertTrue(menu.isDestroyed());
+		assertFalse(loader.isLoaded(1));
+		assertEquals(0, loader.size());
+		assertEquals(0, loaded.get());
+	}
+	
+	@Test
+	void closingTheMenuCancelsTheInFlightPage() {
+		CompletableFuture<AsyncPageSource.Page<Integer, Integer>> pending = new CompletableFuture<>();
+		AsyncPageSource<Integer, Integer> source = (cursor, limit) -> pending;
+		PaginationGui pagination = new PaginationGui(menu);
+		pagination.setAsyncSource(source, (entry, index) -> null, (event, entry, index) -> {
+		}, null);
+		pagination.addSlots(0, 8);
+		GuiManager.addMenu(player.getUniqueId(), menu);
+		
+		GuiManager.instance().onClose(new InventoryCloseEvent(TestServer.view(menu.getInventory(), player), InventoryCloseEvent.Reason.PLAYER));
+		
+		assertTrue(menu.isDestroyed());
+		assertTrue(pending.isCancelled());
+		assertFalse(GuiManager.getMenu(player.getUniqueId()).isPresent());
+	}
+	
+	private static final class TestMenu extends GuiInventory<MenuProfile>{
+		private TestMenu(JavaPlugin plugin, Player player) {
+			super(TestServer.inventory(54), plugin, player);
+		}
+		
+		@Override
+		public void addComponents() {
+		}
+	}
+}